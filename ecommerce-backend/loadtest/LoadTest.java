@@ -0,0 +1,150 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread and virtual-thread
+ * modes of the backend. Each simulated client keeps one request in flight and sends the
+ * next one as soon as the previous response arrives; all clients are driven by the async
+ * HttpClient, so 10k clients do not need 10k local threads.
+ *
+ * Run with any JDK 17+, no build needed:
+ *
+ *   java loadtest/LoadTest.java --path /products --concurrency 10000 --duration 30
+ *   java loadtest/LoadTest.java --path /orders/my-orders --concurrency 10000 --duration 30
+ *
+ * Paths under /orders log in first (--username/--password, default the demo user).
+ * Start the server with a connection limit above the client count, for example
+ * --server.tomcat.max-connections=12000, and raise "ulimit -n" on both sides.
+ *
+ *   platform threads: mvn package && java -jar target/ecommerce-backend-0.0.1-SNAPSHOT.jar
+ *   virtual threads:  mvn -Pjava21 package (on JDK 21) and start the jar the same way
+ */
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:12000/api");
+        String path = options.getOrDefault("path", "/products");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "10000"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        HttpRequest.Builder template = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+        if (path.startsWith("/orders")) {
+            String token = login(client, baseUrl,
+                    options.getOrDefault("username", "user"), options.getOrDefault("password", "user123"));
+            template.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = template.build();
+
+        System.out.printf("GET %s%s with %d clients: %ds warmup, %ds measured%n",
+                baseUrl, path, concurrency, warmupSeconds, durationSeconds);
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        Recorder recorder = new Recorder();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            loop(client, request, recorder, measureFrom, stopAt, done);
+        }
+        done.await();
+
+        recorder.report(durationSeconds);
+    }
+
+    private static void loop(HttpClient client, HttpRequest request, Recorder recorder,
+                             long measureFrom, long stopAt, CountDownLatch done) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= stopAt) {
+            done.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    if (sentAt >= measureFrom) {
+                        boolean ok = error == null && response.statusCode() < 400;
+                        recorder.record(now - sentAt, ok);
+                    }
+                    loop(client, request, recorder, measureFrom, stopAt, done);
+                });
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password)
+            throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/signin"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static class Recorder {
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors.incrementAndGet();
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        synchronized void report(int durationSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("requests ok: %d, errors: %d%n", count, errors.get());
+            System.out.printf("throughput: %.1f req/s%n", count / (double) durationSeconds);
+            if (count > 0) {
+                System.out.printf("latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                        percentile(sorted, 0.50), percentile(sorted, 0.90),
+                        percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+            }
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.security.AuthTokenFilter;
+import com.ecommerce.backend.security.JwtUtils;
+import com.ecommerce.backend.security.UserPrincipal;
+import com.ecommerce.backend.security.UserPrincipalCache;
+import com.ecommerce.backend.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of AuthTokenFilter, with the filter wired exactly as in the running
+ * application: anonymous requests, authenticated requests served from the principal cache,
+ * and authenticated requests that reload the user because the cache was emptied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthTokenFilterBenchmark {
+    private ConfigurableApplicationContext context;
+    private AuthTokenFilter filter;
+    private UserPrincipalCache principalCache;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        filter = context.getBean(AuthTokenFilter.class);
+        principalCache = context.getBean(UserPrincipalCache.class);
+        UserPrincipal principal = (UserPrincipal) context.getBean(UserDetailsServiceImpl.class)
+                .loadUserByUsername("user");
+        String token = context.getBean(JwtUtils.class).generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        authorization = "Bearer " + token;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockFilterChain anonymous() throws Exception {
+        return filter(null);
+    }
+
+    @Benchmark
+    public MockFilterChain authenticatedCachedPrincipal() throws Exception {
+        return filter(authorization);
+    }
+
+    @Benchmark
+    public MockFilterChain authenticatedPrincipalLoad() throws Exception {
+        principalCache.evictAll();
+        return filter(authorization);
+    }
+
+    private MockFilterChain filter(String authorizationHeader) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders/my-orders");
+        if (authorizationHeader != null) {
+            request.addHeader("Authorization", authorizationHeader);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return chain;
+    }
+}
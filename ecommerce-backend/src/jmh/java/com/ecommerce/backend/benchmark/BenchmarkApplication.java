@@ -0,0 +1,35 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.EcommerceBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the real application context on a random port and a private in-memory H2
+ * database, so each benchmark fork measures the same wiring as production. The servlet
+ * context is kept because the security configuration depends on it.
+ */
+final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        // Passed as command-line arguments, which take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN"));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(EcommerceBackendApplication.class).run(args.toArray(String[]::new));
+    }
+}
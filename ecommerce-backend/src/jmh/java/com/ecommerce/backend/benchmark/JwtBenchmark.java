@@ -0,0 +1,76 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.security.JwtUtils;
+import com.ecommerce.backend.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and validation. validateCached hits the verified-token cache, while
+ * validateUncached uses an instance whose cache holds nothing, so every call pays for
+ * the full signature check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+    private static final String SECRET = "bXlTZWNyZXRLZXlGb3JKV1RUb2tlbkdlbmVyYXRpb25BbmRWYWxpZGF0aW9u";
+
+    private JwtUtils cachingJwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtils = jwtUtils(10000);
+        uncachedJwtUtils = jwtUtils(0);
+        UserPrincipal principal = new UserPrincipal(1L, "user", "user@ecommerce.com", "password", "John", "Doe",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = cachingJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachingJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cachingJwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncachedJwtUtils.validateJwtToken(token);
+    }
+
+    private static JwtUtils jwtUtils(int verifiedCacheMaxSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlMs", 300000L);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.dto.LoginRequest;
+import com.ecommerce.backend.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Successful sign-ins per second with eight concurrent callers, through AuthService (rate
+ * limiter, credential-check pool, JWT) and as a bare password check on the calling thread.
+ * Throughput is bound by BCrypt, so pin the CPU budget to compare runs, e.g.
+ * {@code -Djmh.args="Login -jvmArgsAppend -XX:ActiveProcessorCount=2"} under taskset.
+ * The rate limits are raised so every attempt reaches the password check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class LoginBenchmark {
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private AuthenticationManager authenticationManager;
+    private LoginRequest loginRequest;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "security.login-rate-limit.client.capacity=1000000",
+                "security.login-rate-limit.username.capacity=1000000",
+                "security.credential-check.queue-capacity=1000");
+        authService = context.getBean(AuthService.class);
+        authenticationManager = context.getBean(AuthenticationManager.class);
+        loginRequest = new LoginRequest("user", "user123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> signIn() {
+        return authService.authenticateUser(loginRequest, "127.0.0.1").join();
+    }
+
+    @Benchmark
+    public Authentication passwordCheckOnCaller() {
+        return authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.CategoryRepository;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.createOrder end to end against in-memory H2: user lookup, stock
+ * reservation, order and item inserts and response mapping. The products get enough
+ * stock that no run can exhaust it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderServiceBenchmark {
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        orderService = context.getBean(OrderService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            products.add(new Product("Benchmark product " + i, "Created for OrderServiceBenchmark",
+                    new BigDecimal("9.99"), Integer.MAX_VALUE, null,
+                    categoryRepository.findAll().get(0)));
+        }
+
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Product product : productRepository.saveAll(products)) {
+            items.add(new OrderRequest.OrderItemRequest(product.getId(), 1));
+        }
+        request = new OrderRequest();
+        request.setItems(items);
+        request.setShippingAddress("1 Benchmark Street");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request, "user");
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.dto.ProductResponse;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.search.ProductSearchIndex;
+import com.ecommerce.backend.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search at increasing catalog sizes: the LIKE query in ProductRepository against
+ * the in-memory ProductSearchIndex used by ProductService.searchProducts. Names are drawn
+ * from a fixed vocabulary with a seeded Random, so every run searches the same catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductSearchBenchmark {
+    private static final String[] ADJECTIVES = {
+            "wireless", "portable", "classic", "premium", "compact", "organic", "vintage", "smart",
+            "waterproof", "ergonomic", "titanium", "bamboo", "leather", "ceramic", "digital", "foldable"
+    };
+    private static final String[] NOUNS = {
+            "headphones", "blender", "backpack", "jacket", "lamp", "keyboard", "kettle", "speaker",
+            "notebook", "sneakers", "watch", "camera", "chair", "mug", "racket", "tent"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int products;
+
+    @Param({"wireless", "titanium blender"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+    private ProductSearchIndex productSearchIndex;
+    private final Pageable firstPage = PageRequest.of(0, 12);
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+        productSearchIndex = context.getBean(ProductSearchIndex.class);
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + i;
+            rows.add(new Object[] {name, "Generated for ProductSearchBenchmark: " + name,
+                    BigDecimal.valueOf(1 + random.nextInt(50000), 2), random.nextInt(100)});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO products (id, name, description, price, stock_quantity, created_at, updated_at) "
+                        + "VALUES (NEXT VALUE FOR products_seq, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                rows);
+        productSearchIndex.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> likeQuery() {
+        // The LIKE query matches the query as one substring, so only its first word is used
+        return productRepository.findByNameContaining(query.split(" ")[0], firstPage);
+    }
+
+    @Benchmark
+    public List<Long> indexLookup() {
+        return productSearchIndex.search(query);
+    }
+
+    @Benchmark
+    public Page<ProductResponse> serviceSearch() {
+        return productService.searchProducts(query, firstPage);
+    }
+}
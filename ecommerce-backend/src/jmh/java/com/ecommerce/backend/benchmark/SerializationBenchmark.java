@@ -0,0 +1,127 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.dto.ProductResponse;
+import com.ecommerce.backend.entity.Category;
+import com.ecommerce.backend.entity.Order;
+import com.ecommerce.backend.entity.OrderItem;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of the response bodies the controllers return: a product page and an
+ * order with its items. The mapper is configured like the one Spring Boot builds for the
+ * application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+    @Param({"12", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private Page<ProductResponse> productPage;
+    private Order order;
+    private OrderResponse orderResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Electronics");
+        category.setDescription("Electronic devices and gadgets");
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Product product = new Product("Product " + i, "Description of product " + i,
+                    new BigDecimal("199.99"), 50, "https://example.com/images/" + i + ".jpg", category);
+            product.setId((long) i + 1);
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            products.add(product);
+        }
+        productPage = new PageImpl<>(products.stream().map(ProductResponse::from).toList(),
+                PageRequest.of(0, size), 1000);
+
+        User user = new User("user", "user@ecommerce.com", "password", "John", "Doe");
+        user.setId(2L);
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setShippingAddress("123 Main Street");
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        BigDecimal total = BigDecimal.ZERO;
+        for (Product product : products) {
+            OrderItem item = new OrderItem();
+            item.setId(product.getId());
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setPrice(product.getPrice());
+            item.setCreatedAt(now);
+            order.getOrderItems().add(item);
+            total = total.add(item.getSubtotal());
+        }
+        order.setTotalAmount(total);
+        orderResponse = OrderResponse.from(order);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws Exception {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] productPageIncludingMapping() throws Exception {
+        return objectMapper.writeValueAsBytes(new PageImpl<>(products.stream().map(ProductResponse::from).toList(),
+                PageRequest.of(0, size), 1000));
+    }
+
+    @Benchmark
+    public byte[] order() throws Exception {
+        return objectMapper.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public byte[] orderIncludingMapping() throws Exception {
+        return objectMapper.writeValueAsBytes(OrderResponse.from(order));
+    }
+}
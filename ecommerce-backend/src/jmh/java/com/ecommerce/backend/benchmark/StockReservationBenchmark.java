@@ -0,0 +1,62 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.inventory.StripedCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reserve-and-release of one unit of a single hot product from many threads: the ledger's
+ * striped counter against one shared atomic count. Run with several thread counts to see
+ * how each scales, e.g. {@code -Djmh.args="StockReservation -t 1 -t 4"} (one -t per run).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Threads(Threads.MAX)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StockReservationBenchmark {
+    private static final long STOCK = 1_000_000_000L;
+
+    private StripedCounter striped;
+    private AtomicLong single;
+
+    @Setup
+    public void setUp() {
+        striped = new StripedCounter(STOCK, 2 * Runtime.getRuntime().availableProcessors());
+        single = new AtomicLong(STOCK);
+    }
+
+    @Benchmark
+    public boolean stripedCounter() {
+        boolean taken = striped.tryTake(1);
+        striped.add(1);
+        return taken;
+    }
+
+    @Benchmark
+    public boolean singleAtomic() {
+        long available;
+        do {
+            available = single.get();
+            if (available < 1) {
+                return false;
+            }
+        } while (!single.compareAndSet(available, available - 1));
+        single.incrementAndGet();
+        return true;
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecommerce.backend.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process cache with a per-entry time to live and approximate LRU eviction.
+ * Entries past their TTL are treated as misses and dropped on access. Reads and writes go
+ * straight to a ConcurrentHashMap without a shared lock; once the cache is over its size a
+ * writer evicts, from a small sample of entries, an expired one or else the least recently
+ * used. The sample is taken by a hand that keeps moving around the map, so every entry is
+ * considered in turn.
+ *
+ * Invalidation advances a generation counter for the key's stripe. A loader that started
+ * before an invalidation may have read the old value, so {@link #get(Object, Function)}
+ * and {@link #putIfUnchanged} drop its result when the generation has moved meanwhile.
+ * Keys share a few stripes, so an unrelated invalidation at worst leaves one load uncached.
+ */
+public class BoundedTtlCache<K, V> {
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final int GENERATION_STRIPES = 64;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    // Only touched by the writer holding it; the map's iterators never fail on concurrent updates
+    private final Object evictionLock = new Object();
+    private Iterator<Map.Entry<K, Entry<V>>> evictionHand;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            // Skipping same-millisecond writes keeps hot keys from bouncing the cache line
+            if (entry.lastAccess != now) {
+                entry.lastAccess = now;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Returns the cached value or computes, caches and returns a new one. The loader runs
+     * outside any lock, so concurrent misses for the same key may each call it.
+     * A null result from the loader is returned but not cached, and so is a result loaded
+     * while the key was invalidated.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            long generation = generation(key);
+            value = loader.apply(key);
+            if (value != null) {
+                putIfUnchanged(key, value, generation);
+            }
+        }
+        return value;
+    }
+
+    /** Read before loading a value for {@link #putIfUnchanged}. */
+    public long generation(K key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Caches a value loaded after {@code generation} was read, unless the key has been
+     * invalidated since; the value may then predate the change that invalidated it.
+     */
+    public void putIfUnchanged(K key, V value, long generation) {
+        if (maxSize <= 0 || generation(key) != generation) {
+            return;
+        }
+        Entry<V> entry = store(key, value, ttlMillis);
+        // An invalidation between the check and the store may have missed the new entry
+        if (generation(key) != generation) {
+            entries.remove(key, entry);
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    public void put(K key, V value, long ttlMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        store(key, value, ttlMillis);
+    }
+
+    private Entry<V> store(K key, V value, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = new Entry<>(value, now + Math.min(ttlMillis, this.ttlMillis), now);
+        entries.put(key, entry);
+        if (entries.size() > maxSize) {
+            evict(key);
+        }
+        return entry;
+    }
+
+    // Generations move before entries are removed, so a concurrent putIfUnchanged either sees
+    // the new generation or stores an entry that the removal then drops
+    public void invalidate(K key) {
+        generations.incrementAndGet(stripe(key));
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<? super K> predicate) {
+        advanceAllGenerations();
+        entries.keySet().removeIf(predicate);
+    }
+
+    public void invalidateAll() {
+        advanceAllGenerations();
+        entries.clear();
+    }
+
+    private void advanceAllGenerations() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+
+    public Stats stats() {
+        return new Stats(size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    // The entry just written is never picked, so a full cache still keeps the newest value
+    private void evict(K justWritten) {
+        synchronized (evictionLock) {
+            while (entries.size() > maxSize) {
+                long now = System.currentTimeMillis();
+                Map.Entry<K, Entry<V>> victim = null;
+                int sampled = 0;
+                int visited = 0;
+                // Bounded by two laps so a map holding only the new entry cannot spin
+                int limit = 2 * (entries.size() + 1);
+                while (sampled < EVICTION_SAMPLE_SIZE && visited < limit) {
+                    if (evictionHand == null || !evictionHand.hasNext()) {
+                        evictionHand = entries.entrySet().iterator();
+                        if (!evictionHand.hasNext()) {
+                            break;
+                        }
+                    }
+                    Map.Entry<K, Entry<V>> candidate = evictionHand.next();
+                    visited++;
+                    if (candidate.getKey().equals(justWritten)) {
+                        continue;
+                    }
+                    sampled++;
+                    if (candidate.getValue().expiresAt <= now) {
+                        victim = candidate;
+                        break;
+                    }
+                    if (victim == null || candidate.getValue().lastAccess < victim.getValue().lastAccess) {
+                        victim = candidate;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                if (entries.remove(victim.getKey(), victim.getValue())) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public record Stats(int size, long hitCount, long missCount, long evictionCount) {
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Entry(V value, long expiresAt, long lastAccess) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
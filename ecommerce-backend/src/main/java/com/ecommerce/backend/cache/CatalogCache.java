@@ -0,0 +1,136 @@
+package com.ecommerce.backend.cache;
+
+import com.ecommerce.backend.dto.CategoryResponse;
+import com.ecommerce.backend.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for catalog reads: product detail by id, category by id and the
+ * full category list. Values are the immutable response DTOs, never managed entities.
+ *
+ * Evictions issued inside a transaction are repeated after it commits. A reader that loaded
+ * the old row before the commit does not cache it once that repeat has run, because every
+ * read-through load is stored only if no eviction of its key happened while it was loading.
+ * Every eviction also advances the matching {@link CatalogVersions} stamps.
+ */
+@Component
+public class CatalogCache {
+    private static final String ALL_CATEGORIES = "all";
+
+    private final BoundedTtlCache<Long, ProductResponse> products;
+    private final BoundedTtlCache<Long, CategoryResponse> categories;
+    private final BoundedTtlCache<String, List<CategoryResponse>> categoryLists;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    public CatalogCache(@Value("${catalog.cache.product.max-size:10000}") int productMaxSize,
+                        @Value("${catalog.cache.product.ttl-ms:60000}") long productTtlMillis,
+                        @Value("${catalog.cache.category.max-size:1000}") int categoryMaxSize,
+                        @Value("${catalog.cache.category.ttl-ms:600000}") long categoryTtlMillis) {
+        this.products = new BoundedTtlCache<>(productMaxSize, productTtlMillis);
+        this.categories = new BoundedTtlCache<>(categoryMaxSize, categoryTtlMillis);
+        this.categoryLists = new BoundedTtlCache<>(1, categoryTtlMillis);
+    }
+
+    public ProductResponse getProduct(Long id, Function<Long, ProductResponse> loader) {
+        return products.get(id, loader);
+    }
+
+    /**
+     * Looks up several products at once; the ones not cached are loaded with a single call
+     * to the loader. Products that do not exist are missing from the result.
+     */
+    public Map<Long, ProductResponse> getProducts(Collection<Long> ids,
+                                                  Function<List<Long>, List<ProductResponse>> loader) {
+        Map<Long, ProductResponse> found = new HashMap<>(ids.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            ProductResponse product = products.get(id);
+            if (product != null) {
+                found.put(id, product);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, Long> generations = new HashMap<>(missing.size() * 2);
+            for (Long id : missing) {
+                generations.put(id, products.generation(id));
+            }
+            for (ProductResponse product : loader.apply(missing)) {
+                Long generation = generations.get(product.id());
+                if (generation != null) {
+                    products.putIfUnchanged(product.id(), product, generation);
+                }
+                found.put(product.id(), product);
+            }
+        }
+        return found;
+    }
+
+    public CategoryResponse getCategory(Long id, Function<Long, CategoryResponse> loader) {
+        return categories.get(id, loader);
+    }
+
+    public List<CategoryResponse> getAllCategories(Supplier<List<CategoryResponse>> loader) {
+        return categoryLists.get(ALL_CATEGORIES, key -> loader.get());
+    }
+
+    public void evictProduct(Long id) {
+        evictProducts(List.of(id));
+    }
+
+    public void evictProducts(Collection<Long> ids) {
+        List<Long> snapshot = new ArrayList<>(ids);
+        runNowAndAfterCommit(() -> {
+            snapshot.forEach(products::invalidate);
+            catalogVersions.productsChanged(snapshot);
+        });
+    }
+
+    /**
+     * Drops every category entry and, because product responses embed their category,
+     * every cached product as well.
+     */
+    public void evictCategories() {
+        runNowAndAfterCommit(() -> {
+            categoryLists.invalidateAll();
+            categories.invalidateAll();
+            products.invalidateAll();
+            catalogVersions.categoriesChanged();
+        });
+    }
+
+    public BoundedTtlCache.Stats getProductStats() {
+        return products.stats();
+    }
+
+    public BoundedTtlCache.Stats getCategoryStats() {
+        return categories.stats();
+    }
+
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.backend.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory version stamps for catalog data, used as HTTP entity tags so unchanged
+ * responses can be answered with 304 without loading them. There is no Last-Modified:
+ * its one-second granularity would answer 304 to two writes within the same second.
+ *
+ * Stamps start at the boot time in milliseconds and only move forward, so a stamp handed
+ * out by an earlier run of the application is never reused for different content.
+ */
+@Component
+public class CatalogVersions {
+    private static final int MAX_TRACKED_PRODUCTS = 100_000;
+
+    private long lastStamp = System.currentTimeMillis();
+
+    // catalog covers every product listing, categories only the category endpoints.
+    // A product without its own entry is at productBaseline, which moves whenever the
+    // embedded category data of all products may have changed. feeds moves only once
+    // ProductFeeds has published new lists, since those lag behind the commit.
+    private volatile Version catalog;
+    private volatile Version categories;
+    private volatile Version feeds;
+    private volatile Version productBaseline;
+    private final Map<Long, Version> products = new ConcurrentHashMap<>();
+
+    public CatalogVersions() {
+        Version initial = new Version(lastStamp);
+        catalog = initial;
+        categories = initial;
+        feeds = initial;
+        productBaseline = initial;
+    }
+
+    public Version catalogVersion() {
+        return catalog;
+    }
+
+    public Version categoriesVersion() {
+        return categories;
+    }
+
+    /** Version of the latest and available feeds; read it before reading the feeds. */
+    public Version feedsVersion() {
+        return feeds;
+    }
+
+    public Version productVersion(Long id) {
+        Version baseline = productBaseline;
+        Version own = products.get(id);
+        return own != null && own.stamp() > baseline.stamp() ? own : baseline;
+    }
+
+    synchronized void productsChanged(Collection<Long> ids) {
+        Version version = next();
+        if (products.size() + ids.size() > MAX_TRACKED_PRODUCTS) {
+            // Too many individual stamps (bulk imports): move every product to this version
+            productBaseline = version;
+            products.clear();
+        } else {
+            ids.forEach(id -> products.put(id, version));
+        }
+        catalog = version;
+    }
+
+    synchronized void categoriesChanged() {
+        Version version = next();
+        productBaseline = version;
+        products.clear();
+        categories = version;
+        catalog = version;
+    }
+
+    synchronized void feedsChanged() {
+        feeds = next();
+    }
+
+    private Version next() {
+        lastStamp = Math.max(lastStamp + 1, System.currentTimeMillis());
+        return new Version(lastStamp);
+    }
+
+    public record Version(long stamp) {
+        public String etag() {
+            return "W/\"" + stamp + "\"";
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.ecommerce.backend.cache;
+
+import com.ecommerce.backend.dto.ProductResponse;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.search.ProductFacetIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Materialized views behind the home page: the newest products and the ids of products
+ * in stock. Both are built at startup and refreshed after commit for the products that
+ * were saved, deleted or had stock reserved, so the latest and available endpoints never
+ * re-query and re-sort the product table. The refreshed products are also passed on to
+ * {@link ProductFacetIndex}.
+ *
+ * Readers get immutable snapshots through volatile fields. Refreshes run one at a time on
+ * a background thread and re-read the changed products there, so they are applied in the
+ * order they observed the database and never need a second connection while the
+ * committing transaction still holds its own. Each published refresh advances
+ * {@link CatalogVersions#feedsVersion()}, so responses built from the feeds are never
+ * cached under a version that is newer than the lists they were read from.
+ */
+@Component
+public class ProductFeeds {
+    private static final Logger logger = LoggerFactory.getLogger(ProductFeeds.class);
+
+    public static final int LATEST_SIZE = 8;
+    // Newest products kept beyond the eight shown, so deletes rarely force a reload
+    private static final int LATEST_RESERVE = 32;
+    // H2 checks each row against an IN list of parameters linearly, so large refreshes
+    // (bulk imports) are read in slices of this many ids
+    private static final int REFRESH_BATCH_SIZE = 200;
+    private static final Comparator<ProductResponse> NEWEST_FIRST = Comparator
+            .comparing(ProductResponse::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductResponse::id, Comparator.reverseOrder());
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    private final Object writeLock = new Object();
+    // Newest first; the exact top latest.size() products of the catalog
+    private volatile List<ProductResponse> latest = List.of();
+    // Whether latest holds every product, so an older product may still join it
+    private volatile boolean latestExhaustive;
+    // Ascending ids of products with stock
+    private volatile long[] availableIds = new long[0];
+    private volatile boolean built;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-feeds-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (writeLock) {
+            reloadLatest();
+            availableIds = productRepository.findAvailableIds().stream().mapToLong(Long::longValue).toArray();
+            built = true;
+            catalogVersions.feedsChanged();
+        }
+        logger.info("Built product feeds ({} available products) in {} ms",
+                availableIds.length, System.currentTimeMillis() - start);
+    }
+
+    /** False until the startup build has run; callers fall back to querying. */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public List<ProductResponse> getLatest() {
+        List<ProductResponse> snapshot = latest;
+        return snapshot.subList(0, Math.min(LATEST_SIZE, snapshot.size()));
+    }
+
+    public Page<Long> getAvailableIds(Pageable pageable) {
+        long[] snapshot = availableIds;
+        int from = (int) Math.min(pageable.getOffset(), snapshot.length);
+        int to = Math.min(from + pageable.getPageSize(), snapshot.length);
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(snapshot[i]);
+        }
+        return new PageImpl<>(ids, pageable, snapshot.length);
+    }
+
+    /** Re-reads the given products in the background once the current transaction commits. */
+    public void productsChanged(Collection<Long> ids) {
+        Set<Long> snapshot = Set.copyOf(ids);
+        runAfterCommit(() -> refresh(snapshot));
+    }
+
+    /** Product responses embed their category, so the latest feed is reloaded. */
+    public void categoriesChanged() {
+        runAfterCommit(() -> {
+            synchronized (writeLock) {
+                reloadLatest();
+                catalogVersions.feedsChanged();
+            }
+        });
+    }
+
+    private void refresh(Set<Long> ids) {
+        synchronized (writeLock) {
+            Map<Long, Product> current = new HashMap<>();
+            List<Long> idList = new ArrayList<>(ids);
+            for (int from = 0; from < idList.size(); from += REFRESH_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from, Math.min(idList.size(), from + REFRESH_BATCH_SIZE));
+                for (Product product : inNewTransaction(() -> productRepository.findAllById(batch))) {
+                    current.put(product.getId(), product);
+                }
+            }
+
+            long[] available = availableIds;
+            NavigableMap<Long, Boolean> membershipChanges = new TreeMap<>();
+            List<ProductResponse> newest = new ArrayList<>(latest);
+            newest.removeIf(product -> ids.contains(product.id()));
+            for (Long id : ids) {
+                Product product = current.get(id);
+                boolean inStock = product != null && product.getStockQuantity() != null
+                        && product.getStockQuantity() > 0;
+                if (inStock != Arrays.binarySearch(available, id) >= 0) {
+                    membershipChanges.put(id, inStock);
+                }
+                if (product == null) {
+                    productFacetIndex.remove(id);
+                } else {
+                    productFacetIndex.index(product);
+                    ProductResponse response = ProductResponse.from(product);
+                    // Only products newer than the oldest kept entry are known to belong in the feed
+                    if (latestExhaustive || newest.isEmpty()
+                            || NEWEST_FIRST.compare(response, newest.get(newest.size() - 1)) < 0) {
+                        newest.add(response);
+                    }
+                }
+            }
+            availableIds = withMembership(available, membershipChanges);
+
+            newest.sort(NEWEST_FIRST);
+            if (newest.size() > LATEST_RESERVE) {
+                newest = newest.subList(0, LATEST_RESERVE);
+                latestExhaustive = false;
+            }
+            if (newest.size() < LATEST_SIZE && !latestExhaustive) {
+                reloadLatest();
+            } else {
+                latest = List.copyOf(newest);
+            }
+            catalogVersions.feedsChanged();
+        }
+    }
+
+    private void reloadLatest() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        Page<Product> page = inNewTransaction(
+                () -> productRepository.findAll(PageRequest.of(0, LATEST_RESERVE, newestFirst)));
+        latest = page.stream().map(ProductResponse::from).toList();
+        latestExhaustive = !page.hasNext();
+    }
+
+    // Each read gets its own read-only transaction, independent of whatever the caller is in
+    private <T> T inNewTransaction(Supplier<T> query) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template.execute(status -> query.get());
+    }
+
+    // Applies all membership changes in one merge pass, so a refresh of many products
+    // (a bulk import) copies the array once instead of once per product
+    private static long[] withMembership(long[] ids, NavigableMap<Long, Boolean> changes) {
+        if (changes.isEmpty()) {
+            return ids;
+        }
+        long[] merged = new long[ids.length + changes.size()];
+        int size = 0;
+        int next = 0;
+        for (Map.Entry<Long, Boolean> change : changes.entrySet()) {
+            long id = change.getKey();
+            while (next < ids.length && ids[next] < id) {
+                merged[size++] = ids[next++];
+            }
+            if (next < ids.length && ids[next] == id) {
+                next++;
+            }
+            if (change.getValue()) {
+                merged[size++] = id;
+            }
+        }
+        System.arraycopy(ids, next, merged, size, ids.length - next);
+        size += ids.length - next;
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    private void runAfterCommit(Runnable refresh) {
+        Runnable task = () -> {
+            try {
+                refresh.run();
+            } catch (RuntimeException e) {
+                logger.error("Refreshing product feeds failed", e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresher.execute(task);
+                }
+            });
+        } else {
+            refresher.execute(task);
+        }
+    }
+}
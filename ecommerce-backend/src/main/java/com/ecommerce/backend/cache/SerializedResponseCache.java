@@ -0,0 +1,136 @@
+package com.ecommerce.backend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send JSON for hot catalog responses that are the same for every client, such
+ * as the latest products, the category list and the first page of products. Each entry
+ * holds the serialized bytes and a gzip copy, built under a {@link CatalogVersions} version
+ * and served only while that version is current, so any catalog write replaces it on the
+ * next request. A hit runs no query, no Jackson and no per-request compression.
+ *
+ * Clients that accept gzip get the compressed copy; the rest get the plain bytes.
+ */
+@Component
+public class SerializedResponseCache {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.serialized-cache.enabled:true}")
+    private boolean enabled;
+
+    private final BoundedTtlCache<String, Payload> payloads;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SerializedResponseCache(@Value("${catalog.serialized-cache.max-size:256}") int maxSize,
+                                   @Value("${catalog.serialized-cache.ttl-ms:600000}") long ttlMillis,
+                                   MeterRegistry meterRegistry) {
+        this.payloads = new BoundedTtlCache<>(maxSize, ttlMillis);
+        this.hits = Counter.builder("catalog.serialized.responses").tag("result", "hit")
+                .description("Catalog responses served from pre-serialized bytes").register(meterRegistry);
+        this.misses = Counter.builder("catalog.serialized.responses").tag("result", "miss")
+                .description("Catalog responses serialized because no current copy was cached").register(meterRegistry);
+    }
+
+    /**
+     * @param key            the endpoint and every parameter that affects the body
+     * @param version        the catalog version the body depends on, read before the body
+     *                       is loaded and advanced only once a load would see the change
+     * @param acceptEncoding the request's Accept-Encoding header, may be null
+     * @param body           loads the response body on a miss
+     */
+    public ResponseEntity<?> respond(String key, CatalogVersions.Version version, String acceptEncoding,
+                                     Supplier<?> body) {
+        if (!enabled) {
+            return ResponseEntity.ok(body.get());
+        }
+        Payload payload = payloads.get(key);
+        if (payload != null && payload.version().equals(version)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            payload = serialize(version, body.get());
+            payloads.put(key, payload);
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? payload.gzip() : payload.json();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(bytes);
+    }
+
+    private Payload serialize(CatalogVersions.Version version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            // Compressed once per version, so the slowest level costs nothing per request
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(json);
+            }
+            return new Payload(version, json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize catalog response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // gzip or * listed without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].strip();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].strip();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Payload(CatalogVersions.Version version, byte[] json, byte[] gzip) {
+    }
+}
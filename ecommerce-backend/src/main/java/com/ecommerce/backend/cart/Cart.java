@@ -0,0 +1,146 @@
+package com.ecommerce.backend.cart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One user's cart: lines sorted by product id in parallel primitive arrays, so a cart of
+ * hundreds of lines is a few small arrays rather than hundreds of objects. Each line keeps
+ * the unit price (in cents) seen when it was last added, so a view can flag price changes.
+ * All access is synchronized on the cart.
+ */
+public final class Cart {
+    private long[] productIds;
+    private int[] quantities;
+    private long[] priceCents;
+    private int size;
+    private volatile long updatedAt;
+    private boolean checkingOut;
+
+    public Cart() {
+        this(4);
+    }
+
+    private Cart(int capacity) {
+        productIds = new long[capacity];
+        quantities = new int[capacity];
+        priceCents = new long[capacity];
+        updatedAt = System.currentTimeMillis();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public synchronized int getQuantity(long productId) {
+        int index = Arrays.binarySearch(productIds, 0, size, productId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+
+    /** Sets a line's quantity, adding the line if needed; a quantity of zero removes it. */
+    public synchronized void set(long productId, int quantity, long unitPriceCents) {
+        int index = Arrays.binarySearch(productIds, 0, size, productId);
+        if (quantity <= 0) {
+            if (index >= 0) {
+                removeAt(index);
+            }
+        } else if (index >= 0) {
+            quantities[index] = quantity;
+            priceCents[index] = unitPriceCents;
+        } else {
+            insertAt(-index - 1, productId, quantity, unitPriceCents);
+        }
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Takes checked-out lines out of the cart. A line changed during checkout keeps
+     * whatever was added beyond the checked-out quantity.
+     */
+    public synchronized void subtract(List<Line> checkedOut) {
+        for (Line line : checkedOut) {
+            int index = Arrays.binarySearch(productIds, 0, size, line.productId());
+            if (index >= 0) {
+                int left = quantities[index] - line.quantity();
+                if (left > 0) {
+                    quantities[index] = left;
+                } else {
+                    removeAt(index);
+                }
+            }
+        }
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /** Claims the cart for a checkout; false if another checkout holds it. */
+    public synchronized boolean beginCheckout() {
+        if (checkingOut) {
+            return false;
+        }
+        checkingOut = true;
+        return true;
+    }
+
+    public synchronized void endCheckout() {
+        checkingOut = false;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        updatedAt = System.currentTimeMillis();
+    }
+
+    public synchronized List<Line> lines() {
+        List<Line> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(new Line(productIds[i], quantities[i], priceCents[i]));
+        }
+        return lines;
+    }
+
+    /** Rebuilds a cart from a snapshot; the lines must be sorted by product id. */
+    static Cart restore(List<Line> lines, long updatedAt) {
+        Cart cart = new Cart(Math.max(4, lines.size()));
+        for (Line line : lines) {
+            cart.productIds[cart.size] = line.productId();
+            cart.quantities[cart.size] = line.quantity();
+            cart.priceCents[cart.size] = line.priceCents();
+            cart.size++;
+        }
+        cart.updatedAt = updatedAt;
+        return cart;
+    }
+
+    private void insertAt(int index, long productId, int quantity, long unitPriceCents) {
+        if (size == productIds.length) {
+            int capacity = size * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+        }
+        int moved = size - index;
+        System.arraycopy(productIds, index, productIds, index + 1, moved);
+        System.arraycopy(quantities, index, quantities, index + 1, moved);
+        System.arraycopy(priceCents, index, priceCents, index + 1, moved);
+        productIds[index] = productId;
+        quantities[index] = quantity;
+        priceCents[index] = unitPriceCents;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(productIds, index + 1, productIds, index, moved);
+        System.arraycopy(quantities, index + 1, quantities, index, moved);
+        System.arraycopy(priceCents, index + 1, priceCents, index, moved);
+        size--;
+    }
+
+    public record Line(long productId, int quantity, long priceCents) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.ecommerce.backend.cart;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carts by username, dropped ttl-ms after their last change. Expired carts are purged
+ * lazily, at most once a minute, on access.
+ *
+ * If cart.snapshot-file is set, all carts are written to it every snapshot-interval-ms and
+ * on shutdown (to a temporary file that then replaces it) and read back on startup, so
+ * carts survive a restart; changes since the last snapshot are lost on a crash.
+ */
+@Component
+public class CartStore {
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+    private static final long PURGE_INTERVAL_MS = 60_000;
+    private static final int SNAPSHOT_FORMAT = 1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cart.ttl-ms:604800000}")
+    private long ttlMillis;
+
+    @Value("${cart.snapshot-file:}")
+    private String snapshotFile;
+
+    @Value("${cart.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMillis;
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong(System.currentTimeMillis());
+    private ScheduledExecutorService snapshotter;
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("carts.active", carts, Map::size)
+                .description("Carts held in memory")
+                .register(meterRegistry);
+        if (!StringUtils.hasText(snapshotFile)) {
+            return;
+        }
+        load(Path.of(snapshotFile));
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(this::saveQuietly, snapshotIntervalMillis, snapshotIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            saveQuietly();
+        }
+    }
+
+    public Optional<Cart> find(String username) {
+        purgeExpired();
+        Cart cart = carts.get(username);
+        return cart != null && !isExpired(cart, System.currentTimeMillis()) ? Optional.of(cart) : Optional.empty();
+    }
+
+    public Cart getOrCreate(String username) {
+        purgeExpired();
+        return carts.compute(username, (key, cart) ->
+                cart != null && !isExpired(cart, System.currentTimeMillis()) ? cart : new Cart());
+    }
+
+    public void remove(String username) {
+        carts.remove(username);
+    }
+
+    private boolean isExpired(Cart cart, long now) {
+        return now - cart.getUpdatedAt() > ttlMillis;
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last < PURGE_INTERVAL_MS || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        carts.values().removeIf(cart -> isExpired(cart, now));
+    }
+
+    private void saveQuietly() {
+        try {
+            save(Path.of(snapshotFile));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Writing cart snapshot {} failed", snapshotFile, e);
+        }
+    }
+
+    private void save(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long now = System.currentTimeMillis();
+        int saved = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(SNAPSHOT_FORMAT);
+            for (Map.Entry<String, Cart> entry : carts.entrySet()) {
+                Cart cart = entry.getValue();
+                List<Cart.Line> lines = cart.lines();
+                if (lines.isEmpty() || isExpired(cart, now)) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                out.writeUTF(entry.getKey());
+                out.writeLong(cart.getUpdatedAt());
+                out.writeInt(lines.size());
+                for (Cart.Line line : lines) {
+                    out.writeLong(line.productId());
+                    out.writeInt(line.quantity());
+                    out.writeLong(line.priceCents());
+                }
+                saved++;
+            }
+            out.writeBoolean(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Saved {} carts to {}", saved, file);
+    }
+
+    private void load(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_FORMAT) {
+                logger.warn("Ignoring cart snapshot {} in an unknown format", file);
+                return;
+            }
+            while (in.readBoolean()) {
+                String username = in.readUTF();
+                long updatedAt = in.readLong();
+                int size = in.readInt();
+                List<Cart.Line> lines = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    lines.add(new Cart.Line(in.readLong(), in.readInt(), in.readLong()));
+                }
+                Cart cart = Cart.restore(lines, updatedAt);
+                if (!isExpired(cart, now)) {
+                    carts.put(username, cart);
+                }
+            }
+            logger.info("Restored {} carts from {}", carts.size(), file);
+        } catch (IOException e) {
+            logger.error("Reading cart snapshot {} failed, starting with no carts", file, e);
+            carts.clear();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Metrics that Spring Boot does not bind on its own. HTTP, repository and Hikari pool
+ * metrics come from Actuator; see the management.* properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    // In virtual-thread mode callers queue on the limiter before they ever reach the pool
+    @Bean
+    public MeterBinder jdbcLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource limiter) {
+                Gauge.builder("jdbc.limiter.permits.available", limiter,
+                                ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .description("JDBC permits not currently held")
+                        .register(registry);
+                Gauge.builder("jdbc.limiter.waiting", limiter, ConcurrencyLimitingDataSource::getQueueLength)
+                        .description("Threads waiting for a JDBC permit")
+                        .register(registry);
+            }
+        };
+    }
+}
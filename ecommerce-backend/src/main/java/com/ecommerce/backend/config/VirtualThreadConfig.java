@@ -0,0 +1,88 @@
+package com.ecommerce.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual-thread mode (Java 21+, see the java21 Maven profile). Tomcat requests,
+ * {@code @Async} methods and async MVC responses run on virtual threads, and the
+ * DataSource is wrapped in a {@link ConcurrencyLimitingDataSource} so that an unbounded
+ * number of request threads cannot all pile onto the connection pool at once.
+ *
+ * The executor is looked up reflectively so the default Java 17 build still compiles.
+ */
+@Configuration
+@ConditionalOnProperty(name = "concurrency.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    // HikariCP's maximumPoolSize when none is configured
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(virtualThreads);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreads);
+    }
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        int configuredPermits = environment.getProperty("concurrency.jdbc-limiter.permits", Integer.class, 0);
+        long acquireTimeoutMillis =
+                environment.getProperty("concurrency.jdbc-limiter.acquire-timeout-ms", Long.class, 30000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                // Default to the pool size: more permits than connections only moves the queue
+                // into the pool, where waiting threads may pin their carriers.
+                int permits = configuredPermits;
+                if (permits <= 0) {
+                    permits = bean instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0
+                            ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                }
+                logger.info("Limiting concurrent JDBC use of '{}' to {} connections", beanName, permits);
+                return new ConcurrencyLimitingDataSource(dataSource, permits, acquireTimeoutMillis);
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreads.shutdown();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                    "concurrency.virtual-threads.enabled requires Java 21 or later, running on "
+                            + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.cache.CatalogVersions;
+import com.ecommerce.backend.controller.CatalogConditionalGetInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CatalogConditionalGetInterceptor(catalogVersions))
+                .addPathPatterns("/products/**", "/categories/**");
+    }
+}
@@ -2,6 +2,8 @@ package com.ecommerce.backend.config;
 
 import com.ecommerce.backend.security.AuthTokenFilter;
 import com.ecommerce.backend.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -16,6 +18,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -32,6 +35,13 @@ public class WebSecurityConfig {
         @Value("${cors.allowed-origins}")
     private String[] allowedOrigins;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // Unset or blank when actuator shares the API port
+    @Value("${management.server.port:#{null}}")
+    private Integer managementPort;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -61,12 +71,19 @@ public class WebSecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers(
+                // Async dispatches only finish requests that were already authorized (streamed responses)
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers(
                         new AntPathRequestMatcher("/auth/**"),
                         new AntPathRequestMatcher("/products/**"),
                         new AntPathRequestMatcher("/categories/**"),
                         new AntPathRequestMatcher("/h2-console/**")
                     ).permitAll()
+                    // Open on the loopback management port (management.server.*) for scrapers;
+                    // anywhere else, e.g. when MANAGEMENT_PORT is set to the API port, admins only
+                    .requestMatchers(new AndRequestMatcher(new AntPathRequestMatcher("/actuator/**"),
+                            this::isManagementPortRequest)).permitAll()
+                    .requestMatchers(new AntPathRequestMatcher("/actuator/**")).hasRole("ADMIN")
                     .anyRequest().authenticated()
             );
 
@@ -79,6 +96,11 @@ public class WebSecurityConfig {
         return http.build();
     }
 
+    private boolean isManagementPortRequest(HttpServletRequest request) {
+        return managementPort != null && managementPort > 0 && managementPort != serverPort
+                && request.getLocalPort() == managementPort;
+    }
+
     @Bean
     CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -3,11 +3,17 @@ package com.ecommerce.backend.controller;
 import com.ecommerce.backend.dto.LoginRequest;
 import com.ecommerce.backend.dto.SignupRequest;
 import com.ecommerce.backend.service.AuthService;
+import com.ecommerce.backend.service.LoginThrottledException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/auth")
@@ -15,9 +21,17 @@ public class AuthController {
     @Autowired
     AuthService authService;
 
+    // Completes asynchronously, so the request thread is released while the password is checked
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        return authService.authenticateUser(loginRequest);
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        try {
+            return authService.authenticateUser(loginRequest, request.getRemoteAddr());
+        } catch (LoginThrottledException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage()));
+        }
     }
 
     @PostMapping("/signup")
@@ -0,0 +1,70 @@
+package com.ecommerce.backend.controller;
+
+import com.ecommerce.backend.dto.CartCheckoutRequest;
+import com.ecommerce.backend.dto.CartResponse;
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.service.CartService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/cart")
+public class CartController {
+    @Autowired
+    private CartService cartService;
+
+    @GetMapping
+    public ResponseEntity<CartResponse> getCart(Authentication authentication) {
+        return ResponseEntity.ok(cartService.getCart(authentication.getName()));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<?> addItem(@RequestBody OrderRequest.OrderItemRequest item,
+                                     Authentication authentication) {
+        try {
+            return ResponseEntity.ok(cartService.addItem(authentication.getName(), item.getProductId(),
+                    item.getQuantity()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<?> updateItem(@PathVariable Long productId,
+                                        @RequestBody OrderRequest.OrderItemRequest item,
+                                        Authentication authentication) {
+        try {
+            return ResponseEntity.ok(cartService.updateItem(authentication.getName(), productId,
+                    item.getQuantity()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<CartResponse> removeItem(@PathVariable Long productId, Authentication authentication) {
+        return ResponseEntity.ok(cartService.removeItem(authentication.getName(), productId));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear(Authentication authentication) {
+        cartService.clear(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(@Valid @RequestBody CartCheckoutRequest request,
+                                      Authentication authentication) {
+        try {
+            OrderResponse order = cartService.checkout(authentication.getName(), request.getShippingAddress());
+            return ResponseEntity.ok(order);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.backend.controller;
+
+import com.ecommerce.backend.cache.CatalogVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Conditional GET for the product and category endpoints. The ETag comes from
+ * {@link CatalogVersions} and is checked before the handler runs, so a matching
+ * If-None-Match is answered with 304 without loading or serializing anything.
+ *
+ * The version is read before the handler loads the body, so the body is never older
+ * than its ETag. The latest and available feeds lag behind commits and use the feeds
+ * version, which moves only once they have been refreshed.
+ */
+public class CatalogConditionalGetInterceptor implements HandlerInterceptor {
+    private static final String PRODUCT_DETAIL_PATTERN = "/products/{id}";
+    private static final String CATEGORIES_PATTERN_PREFIX = "/categories";
+    private static final String LATEST_PATTERN = "/products/latest";
+    private static final String AVAILABLE_PATTERN = "/products/available";
+    private static final String CURSOR_PARAMETER = "cursor";
+
+    // Catalog data is the same for every user; caches may keep it but must revalidate.
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final CatalogVersions catalogVersions;
+
+    public CatalogConditionalGetInterceptor(CatalogVersions catalogVersions) {
+        this.catalogVersions = catalogVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)
+                || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+
+        CatalogVersions.Version version = versionFor(request);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return !new ServletWebRequest(request, response).checkNotModified(version.etag());
+    }
+
+    private CatalogVersions.Version versionFor(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (PRODUCT_DETAIL_PATTERN.equals(pattern)) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables =
+                    (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            try {
+                return catalogVersions.productVersion(Long.valueOf(variables.get("id")));
+            } catch (NumberFormatException e) {
+                return catalogVersions.catalogVersion();
+            }
+        }
+        // The cursor form of the available listing queries the table instead of the feed
+        if (LATEST_PATTERN.equals(pattern)
+                || AVAILABLE_PATTERN.equals(pattern) && request.getParameter(CURSOR_PARAMETER) == null) {
+            return catalogVersions.feedsVersion();
+        }
+        if (pattern != null && pattern.startsWith(CATEGORIES_PATTERN_PREFIX)) {
+            return catalogVersions.categoriesVersion();
+        }
+        return catalogVersions.catalogVersion();
+    }
+}
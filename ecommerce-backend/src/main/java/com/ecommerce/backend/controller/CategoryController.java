@@ -1,12 +1,14 @@
 package com.ecommerce.backend.controller;
 
-import com.ecommerce.backend.entity.Category;
+import com.ecommerce.backend.cache.CatalogVersions;
+import com.ecommerce.backend.cache.SerializedResponseCache;
+import com.ecommerce.backend.dto.CategoryResponse;
 import com.ecommerce.backend.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -16,15 +18,22 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private SerializedResponseCache serializedResponses;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<?> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serializedResponses.respond("categories", catalogVersions.categoriesVersion(), acceptEncoding,
+                categoryService::getAllCategories);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        Optional<Category> category = categoryService.getCategoryById(id);
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id) {
+        Optional<CategoryResponse> category = categoryService.getCategoryById(id);
         return category.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
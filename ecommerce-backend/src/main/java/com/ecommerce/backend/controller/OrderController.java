@@ -1,18 +1,34 @@
 package com.ecommerce.backend.controller;
 
 import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.dto.OrderSubmissionResponse;
 import com.ecommerce.backend.entity.Order;
+import com.ecommerce.backend.service.OrderExportService;
+import com.ecommerce.backend.service.OrderQueueFullException;
 import com.ecommerce.backend.service.OrderService;
+import com.ecommerce.backend.service.OrderSubmission;
+import com.ecommerce.backend.service.OrderSubmissionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -22,43 +38,110 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderSubmissionService orderSubmissionService;
+
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest orderRequest, 
                                        Authentication authentication) {
         try {
-            Order order = orderService.createOrder(orderRequest, authentication.getName());
+            OrderResponse order = orderService.createOrder(orderRequest, authentication.getName());
             return ResponseEntity.ok(order);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // Accepts the order and places it in the background; retries with the same
+    // Idempotency-Key return the original submission instead of placing it again.
+    @PostMapping("/async")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> submitOrder(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                         @Valid @RequestBody OrderRequest orderRequest,
+                                         Authentication authentication) {
+        if (!StringUtils.hasText(idempotencyKey) || idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest().body("An Idempotency-Key header of at most 255 characters is required");
+        }
+        try {
+            OrderSubmission submission =
+                    orderSubmissionService.submit(authentication.getName(), idempotencyKey, orderRequest);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/orders/submissions/{id}").buildAndExpand(submission.getId()).toUri())
+                    .body(OrderSubmissionResponse.from(submission));
+        } catch (OrderQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/submissions/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderSubmissionResponse> getSubmission(@PathVariable String id,
+                                                                 Authentication authentication) {
+        return orderSubmissionService.find(id, authentication.getName())
+                .map(submission -> ResponseEntity.ok(OrderSubmissionResponse.from(submission)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/my-orders")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<Order>> getUserOrders(
+    public ResponseEntity<?> getUserOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
+
+        // A cursor parameter (empty for the first slice) selects keyset pagination, newest first
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(orderService.scrollUserOrders(authentication.getName(), cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.getUserOrders(authentication.getName(), pageable);
+        Page<OrderResponse> orders = orderService.getUserOrders(authentication.getName(), pageable);
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
-        Optional<Order> order = orderService.getOrderById(id);
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
+        Optional<OrderResponse> order = orderService.getOrderById(id);
         return order.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "NDJSON") OrderExportService.Format format) {
+        MediaType contentType = format == OrderExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            orderExportService.exportOrders(format, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, 
                                              @RequestParam Order.OrderStatus status) {
         try {
-            Order order = orderService.updateOrderStatus(id, status);
+            OrderResponse order = orderService.updateOrderStatus(id, status);
             return ResponseEntity.ok(order);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
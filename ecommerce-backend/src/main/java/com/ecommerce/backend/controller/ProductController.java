@@ -1,94 +1,205 @@
 package com.ecommerce.backend.controller;
 
-import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.cache.CatalogVersions;
+import com.ecommerce.backend.cache.SerializedResponseCache;
+import com.ecommerce.backend.dto.ProductResponse;
+import com.ecommerce.backend.service.ProductImportService;
 import com.ecommerce.backend.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/products")
 public class ProductController {
+    // First pages kept serialized: only these sorts and sizes, so arbitrary parameters
+    // cannot fill the cache with entries that evict the pages clients actually load
+    private static final Set<String> CACHED_SORT_PROPERTIES = Set.of("id", "name", "price", "createdAt");
+    private static final Set<Integer> CACHED_PAGE_SIZES = Set.of(12, 24, 48);
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private SerializedResponseCache serializedResponses;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Passing a cursor parameter (empty for the first slice) switches a listing to keyset
+    // pagination; the response is then a CursorPage instead of a Page.
+
     @GetMapping
-    public ResponseEntity<Page<Product>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(productService.scrollAllProducts(cursor, size, sort));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Product> products = productService.getAllProducts(pageable);
+        // The first page is what most clients load, so it is kept serialized
+        if (page == 0 && CACHED_SORT_PROPERTIES.contains(sortBy) && CACHED_PAGE_SIZES.contains(size)) {
+            Sort.Order order = sort.iterator().next();
+            String key = "products?size=" + size + "&sort=" + order.getProperty() + "," + order.getDirection();
+            return serializedResponses.respond(key, catalogVersions.catalogVersion(), acceptEncoding,
+                    () -> productService.getAllProducts(pageable));
+        }
+        Page<ProductResponse> products = productService.getAllProducts(pageable);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Optional<Product> product = productService.getProductById(id);
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+        Optional<ProductResponse> product = productService.getProductById(id);
         return product.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<Product>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(productService.scrollProductsByCategory(categoryId, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getProductsByCategory(categoryId, pageable);
+        Page<ProductResponse> products = productService.getProductsByCategory(categoryId, pageable);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<Product>> searchProducts(
+    public ResponseEntity<Page<ProductResponse>> searchProducts(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.searchProducts(name, pageable);
+        Page<ProductResponse> products = productService.searchProducts(name, pageable);
         return ResponseEntity.ok(products);
     }
 
+    // Any combination of filters; categoryId may be repeated to match any of several categories
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size) {
+
+        try {
+            Pageable pageable = PageRequest.of(page, size);
+            return ResponseEntity.ok(productService.filterProducts(q,
+                    categoryId != null ? categoryId : List.of(), minPrice, maxPrice, inStock, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/price-range")
-    public ResponseEntity<Page<Product>> getProductsByPriceRange(
+    public ResponseEntity<Page<ProductResponse>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
+        Page<ProductResponse> products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<List<Product>> getLatestProducts() {
-        List<Product> products = productService.getLatestProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getLatestProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Keyed on the feeds version: it moves only after ProductFeeds has caught up with a write
+        return serializedResponses.respond("products/latest", catalogVersions.feedsVersion(), acceptEncoding,
+                productService::getLatestProducts);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<Page<Product>> getAvailableProducts(
+    public ResponseEntity<?> getAvailableProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(productService.scrollAvailableProducts(cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getAvailableProducts(pageable);
+        Page<ProductResponse> products = productService.getAvailableProducts(pageable);
         return ResponseEntity.ok(products);
     }
-}
\ No newline at end of file
+
+    // Bulk create/update. A file part is subject to the multipart size limits; posting the
+    // CSV or NDJSON as the request body streams it with no size limit.
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importProducts(@RequestParam("file") MultipartFile file,
+                                            @RequestParam(defaultValue = "NDJSON") ProductImportService.Format format) {
+        try (InputStream upload = file.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importProducts(format, upload));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importProducts(HttpServletRequest request) {
+        ProductImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV : ProductImportService.Format.NDJSON;
+        try (InputStream upload = request.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importProducts(format, upload));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.ecommerce.backend.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk synthetic catalog, users and order history for scale testing, enabled with the
+ * "scale" profile (see application-scale.properties for the knobs). Rows are written with
+ * batched JDBC inserts from a thread pool, bypassing JPA entirely.
+ *
+ * Product popularity in orders is Zipfian and cart sizes follow a Pareto tail, so a few
+ * products dominate order_items and a few orders are very large. Ids are reserved from the
+ * entity sequences, so JPA inserts made afterwards never collide with generated rows.
+ * Every chunk has its own seeded random, so the same settings produce the same data.
+ */
+@Component
+@Profile("scale")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ScaleDataGenerator implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ScaleDataGenerator.class);
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int HISTORY_DAYS = 365;
+
+    private static final String[] ADJECTIVES = {
+            "Wireless", "Portable", "Classic", "Premium", "Compact", "Organic", "Vintage", "Smart",
+            "Waterproof", "Ergonomic", "Titanium", "Bamboo", "Leather", "Ceramic", "Digital", "Foldable"
+    };
+    private static final String[] NOUNS = {
+            "Headphones", "Blender", "Backpack", "Jacket", "Lamp", "Keyboard", "Kettle", "Speaker",
+            "Notebook", "Sneakers", "Watch", "Camera", "Chair", "Mug", "Racket", "Tent"
+    };
+    private static final String[] CITIES = {
+            "Springfield", "Riverside", "Fairview", "Franklin", "Greenville", "Madison", "Georgetown", "Salem"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${scale-data.categories:50}")
+    private int categories;
+
+    @Value("${scale-data.products:1000000}")
+    private int products;
+
+    @Value("${scale-data.users:100000}")
+    private int users;
+
+    @Value("${scale-data.orders:1000000}")
+    private int orders;
+
+    @Value("${scale-data.product-popularity-exponent:1.0}")
+    private double popularityExponent;
+
+    @Value("${scale-data.cart-size-alpha:1.5}")
+    private double cartSizeAlpha;
+
+    @Value("${scale-data.max-cart-lines:50}")
+    private int maxCartLines;
+
+    @Value("${scale-data.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${scale-data.threads:0}")
+    private int threads;
+
+    @Value("${scale-data.seed:42}")
+    private long seed;
+
+    @Value("${scale-data.password:password}")
+    private String password;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existingProducts = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        if (existingProducts != null && existingProducts >= products) {
+            logger.info("Skipping scale data generation, {} products already present", existingProducts);
+            return;
+        }
+
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        try {
+            long started = System.nanoTime();
+            long categoryBase = generateCategories();
+            long productBase = reserveIds("products_seq", products);
+            long[] productPrices = generateProducts(pool, productBase, categoryBase);
+            long userBase = generateUsers(pool);
+            long items = generateOrders(pool, productBase, productPrices, userBase);
+            logger.info("Generated {} categories, {} products, {} users, {} orders and {} order items in {} ms "
+                            + "using {} threads", categories, products, users, orders, items,
+                    (System.nanoTime() - started) / 1_000_000, threadCount);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private long generateCategories() {
+        long base = reserveIds("categories_seq", categories);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO categories (id, name, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, base + 1 + i);
+                        ps.setString(2, "Scale Category " + (base + 1 + i));
+                        ps.setString(3, "Generated category for scale testing");
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return categories;
+                    }
+                });
+        return base;
+    }
+
+    private long[] generateProducts(ExecutorService pool, long base, long categoryBase) throws Exception {
+        long[] prices = new long[products];
+        long now = System.currentTimeMillis();
+        runInChunks(pool, "products", products, (start, count, random) ->
+                jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, stock_quantity, "
+                                + "image_url, category_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                int index = start + i;
+                                long id = base + 1 + index;
+                                String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                                        + NOUNS[random.nextInt(NOUNS.length)] + " " + id;
+                                prices[index] = priceCents(random);
+                                Timestamp created = pastTimestamp(random, now);
+                                ps.setLong(1, id);
+                                ps.setString(2, name);
+                                ps.setString(3, "Generated product " + name);
+                                ps.setBigDecimal(4, BigDecimal.valueOf(prices[index], 2));
+                                // About 5% of the catalog is out of stock
+                                ps.setInt(5, random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(500));
+                                ps.setString(6, null);
+                                ps.setLong(7, categoryBase + 1 + random.nextInt(Math.max(categories, 1)));
+                                ps.setTimestamp(8, created);
+                                ps.setTimestamp(9, created);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return count;
+                            }
+                        }));
+        logger.info("Generated {} products", products);
+        return prices;
+    }
+
+    private long generateUsers(ExecutorService pool) throws Exception {
+        long base = reserveIds("users_seq", users);
+        // Hashing once keeps generation fast; every generated user shares the same password.
+        String passwordHash = passwordEncoder.encode(password);
+        long now = System.currentTimeMillis();
+        runInChunks(pool, "users", users, (start, count, random) ->
+                jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, first_name, last_name, "
+                                + "address, phone, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                long id = base + 1 + start + i;
+                                Timestamp created = pastTimestamp(random, now);
+                                ps.setLong(1, id);
+                                ps.setString(2, "shopper" + id);
+                                ps.setString(3, "shopper" + id + "@example.com");
+                                ps.setString(4, passwordHash);
+                                ps.setString(5, "Shopper");
+                                ps.setString(6, "No. " + id);
+                                ps.setString(7, address(random));
+                                ps.setString(8, "555-" + (1000 + random.nextInt(9000)));
+                                ps.setString(9, "USER");
+                                ps.setTimestamp(10, created);
+                                ps.setTimestamp(11, created);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return count;
+                            }
+                        }));
+        logger.info("Generated {} users", users);
+        return base;
+    }
+
+    private long generateOrders(ExecutorService pool, long productBase, long[] productPrices, long userBase)
+            throws Exception {
+        if (orders == 0 || products == 0) {
+            return 0;
+        }
+        long[] userIds = users > 0 ? null
+                : jdbcTemplate.queryForList("SELECT id FROM users", Long.class).stream().mapToLong(Long::longValue).toArray();
+        if (userIds != null && userIds.length == 0) {
+            throw new IllegalStateException("Orders cannot be generated without users");
+        }
+
+        long orderBase = reserveIds("orders_seq", orders);
+        ZipfSampler popularity = new ZipfSampler(productPrices.length, popularityExponent);
+        AtomicLong itemCount = new AtomicLong();
+        long now = System.currentTimeMillis();
+
+        runInChunks(pool, "orders", orders, (start, count, random) -> {
+            long[] userOf = new long[count];
+            long[] createdAt = new long[count];
+            long[] totals = new long[count];
+            ItemBuffer items = new ItemBuffer(count * 2);
+            int[] lineProducts = new int[maxCartLines];
+
+            for (int i = 0; i < count; i++) {
+                userOf[i] = userIds != null ? userIds[random.nextInt(userIds.length)]
+                        : userBase + 1 + random.nextInt(users);
+                createdAt[i] = now - (long) (random.nextDouble() * HISTORY_DAYS * DAY_MILLIS);
+                int lines = Math.min(cartSize(random), productPrices.length);
+                for (int line = 0; line < lines; line++) {
+                    int product;
+                    do {
+                        product = popularity.sample(random);
+                    } while (contains(lineProducts, line, product));
+                    lineProducts[line] = product;
+                    int quantity = random.nextInt(5) == 0 ? 2 + random.nextInt(3) : 1;
+                    items.add(i, product, quantity);
+                    totals[i] += productPrices[product] * quantity;
+                }
+            }
+
+            long itemBase = reserveIds("order_items_seq", items.size);
+            itemCount.addAndGet(items.size);
+            jdbcTemplate.batchUpdate("INSERT INTO orders (id, user_id, total_amount, status, shipping_address, "
+                            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Timestamp created = new Timestamp(createdAt[i]);
+                            ps.setLong(1, orderBase + 1 + start + i);
+                            ps.setLong(2, userOf[i]);
+                            ps.setBigDecimal(3, BigDecimal.valueOf(totals[i], 2));
+                            ps.setString(4, status(random, now - createdAt[i]));
+                            ps.setString(5, address(random));
+                            ps.setTimestamp(6, created);
+                            ps.setTimestamp(7, created);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return count;
+                        }
+                    });
+            jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, product_id, quantity, price, created_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int order = items.orders[i];
+                            int product = items.products[i];
+                            ps.setLong(1, itemBase + 1 + i);
+                            ps.setLong(2, orderBase + 1 + start + order);
+                            ps.setLong(3, productBase + 1 + product);
+                            ps.setInt(4, items.quantities[i]);
+                            ps.setBigDecimal(5, BigDecimal.valueOf(productPrices[product], 2));
+                            ps.setTimestamp(6, new Timestamp(createdAt[order]));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return items.size;
+                        }
+                    });
+        });
+        logger.info("Generated {} orders with {} items", orders, itemCount.get());
+        return itemCount.get();
+    }
+
+    /**
+     * Reserves a block of ids from an entity sequence and returns the id just below it.
+     * The sequence is moved past the block so that Hibernate's pooled optimizer, which
+     * treats each value it fetches as the top of a block of 50, only hands out larger ids.
+     */
+    private synchronized long reserveIds(String sequence, long count) {
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+        long base = next - 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (base + count + 50));
+        return base;
+    }
+
+    private void runInChunks(ExecutorService pool, String table, int total, ChunkWriter writer) throws Exception {
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int start = 0; start < total; start += batchSize) {
+            int chunkStart = start;
+            int count = Math.min(batchSize, total - start);
+            SplittableRandom random = new SplittableRandom(seed * 31 + table.hashCode() * 1_000_003L + chunkStart);
+            chunks.add(pool.submit(() -> {
+                writer.write(chunkStart, count, random);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new IllegalStateException("Generating " + table + " failed", e.getCause());
+        }
+    }
+
+    // Pareto-distributed line count: most carts have one or two lines, a few are very large.
+    private int cartSize(SplittableRandom random) {
+        double lines = Math.pow(1 - random.nextDouble(), -1 / cartSizeAlpha);
+        return (int) Math.min(maxCartLines, Math.floor(lines));
+    }
+
+    // Log-normal prices around $25, capped at $5,000.
+    private static long priceCents(SplittableRandom random) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double dollars = Math.exp(Math.log(25) + gaussian);
+        return Math.max(99, Math.min(500_000, Math.round(dollars * 100)));
+    }
+
+    private static String status(SplittableRandom random, long ageMillis) {
+        if (ageMillis < 2 * DAY_MILLIS) {
+            return random.nextInt(3) == 0 ? "CONFIRMED" : "PENDING";
+        }
+        if (ageMillis < 7 * DAY_MILLIS) {
+            return "SHIPPED";
+        }
+        return random.nextInt(10) == 0 ? "CANCELLED" : "DELIVERED";
+    }
+
+    private static Timestamp pastTimestamp(SplittableRandom random, long now) {
+        return new Timestamp(now - (long) (random.nextDouble() * HISTORY_DAYS * DAY_MILLIS));
+    }
+
+    private static String address(SplittableRandom random) {
+        return (1 + random.nextInt(9999)) + " Main Street, " + CITIES[random.nextInt(CITIES.length)];
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(int start, int count, SplittableRandom random) throws Exception;
+    }
+
+    private static final class ItemBuffer {
+        private int[] orders;
+        private int[] products;
+        private int[] quantities;
+        private int size;
+
+        private ItemBuffer(int capacity) {
+            orders = new int[capacity];
+            products = new int[capacity];
+            quantities = new int[capacity];
+        }
+
+        private void add(int order, int product, int quantity) {
+            if (size == orders.length) {
+                orders = Arrays.copyOf(orders, size * 2);
+                products = Arrays.copyOf(products, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            orders[size] = order;
+            products[size] = product;
+            quantities[size] = quantity;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.backend.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples indexes 0..n-1 with Zipfian popularity: the k-th most popular item is drawn
+ * with probability proportional to 1 / k^exponent. Ranks are spread over the index range
+ * with a fixed stride, so the popular items are not simply the lowest ids.
+ *
+ * The cumulative distribution is precomputed once (8 bytes per item) and is read-only
+ * afterwards, so one sampler can be shared by all generator threads.
+ */
+public class ZipfSampler {
+    private final double[] cumulative;
+    private final long stride;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf sampler needs at least one item");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        stride = coprimeStride(n);
+    }
+
+    public int sample(SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int rank = Arrays.binarySearch(cumulative, target);
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        rank = Math.min(rank, cumulative.length - 1);
+        return (int) ((rank * stride) % cumulative.length);
+    }
+
+    // A stride coprime to n visits every index exactly once, so it is a permutation of ranks.
+    private static long coprimeStride(int n) {
+        long stride = Math.max(1, (long) (n * 0.6180339887));
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class CartCheckoutRequest {
+    @NotBlank
+    private String shippingAddress;
+
+    public CartCheckoutRequest() {}
+
+    public String getShippingAddress() { return shippingAddress; }
+    public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
+}
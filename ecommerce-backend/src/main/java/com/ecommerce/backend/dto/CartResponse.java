@@ -0,0 +1,29 @@
+package com.ecommerce.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A cart revalidated against the current catalog. {@code checkoutReady} is false while any
+ * line's product is gone or short of stock; {@code total} covers the available lines.
+ */
+public record CartResponse(List<Line> items,
+                           int totalQuantity,
+                           BigDecimal total,
+                           boolean checkoutReady) {
+
+    /**
+     * {@code name}, {@code unitPrice} and {@code lineTotal} are null if the product no
+     * longer exists. {@code priceChanged} means the price differs from when it was added.
+     */
+    public record Line(Long productId,
+                       String name,
+                       String imageUrl,
+                       BigDecimal unitPrice,
+                       int quantity,
+                       BigDecimal lineTotal,
+                       Integer stockQuantity,
+                       boolean available,
+                       boolean priceChanged) {
+    }
+}
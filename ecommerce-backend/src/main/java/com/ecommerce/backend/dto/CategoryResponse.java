@@ -0,0 +1,20 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.entity.Category;
+
+import java.time.LocalDateTime;
+
+public record CategoryResponse(Long id,
+                               String name,
+                               String description,
+                               LocalDateTime createdAt,
+                               LocalDateTime updatedAt) {
+
+    public static CategoryResponse from(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return new CategoryResponse(category.getId(), category.getName(), category.getDescription(),
+                category.getCreatedAt(), category.getUpdatedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.backend.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is an opaque token to pass
+ * back as the {@code cursor} parameter; it is null on the last slice.
+ */
+public record CursorPage<T>(List<T> content,
+                            int size,
+                            boolean hasNext,
+                            String nextCursor) {
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OrderExportRecord(Long id,
+                                Long userId,
+                                String username,
+                                Order.OrderStatus status,
+                                BigDecimal totalAmount,
+                                String shippingAddress,
+                                LocalDateTime createdAt,
+                                List<Item> items) {
+
+    public record Item(Long productId,
+                       String productName,
+                       Integer quantity,
+                       BigDecimal price) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order joined with one of its items, as read by the order export. The item columns
+ * are null for an order without items.
+ */
+public record OrderExportRow(Long orderId,
+                             Long userId,
+                             String username,
+                             Order.OrderStatus status,
+                             BigDecimal totalAmount,
+                             String shippingAddress,
+                             LocalDateTime createdAt,
+                             Long productId,
+                             String productName,
+                             Integer quantity,
+                             BigDecimal price) {
+}
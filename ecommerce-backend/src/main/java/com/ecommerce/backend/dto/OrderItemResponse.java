@@ -0,0 +1,19 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.entity.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderItemResponse(Long id,
+                                ProductResponse product,
+                                Integer quantity,
+                                BigDecimal price,
+                                BigDecimal subtotal,
+                                LocalDateTime createdAt) {
+
+    public static OrderItemResponse from(OrderItem item) {
+        return new OrderItemResponse(item.getId(), ProductResponse.from(item.getProduct()),
+                item.getQuantity(), item.getPrice(), item.getSubtotal(), item.getCreatedAt());
+    }
+}
@@ -1,18 +1,29 @@
 package com.ecommerce.backend.dto;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
 public class OrderRequest {
     @NotEmpty
-    private List<OrderItemRequest> items;
+    private List<@Valid OrderItemRequest> items;
 
     @NotBlank
     private String shippingAddress;
 
     public static class OrderItemRequest {
+        public static final int MAX_QUANTITY = 10_000;
+
+        @NotNull
         private Long productId;
+
+        @NotNull
+        @Min(1)
+        @Max(MAX_QUANTITY)
         private Integer quantity;
 
         public OrderItemRequest() {}
@@ -0,0 +1,43 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.entity.Order;
+import com.ecommerce.backend.entity.OrderItem;
+import com.ecommerce.backend.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record OrderResponse(Long id,
+                            UserSummary user,
+                            List<OrderItemResponse> orderItems,
+                            BigDecimal totalAmount,
+                            Order.OrderStatus status,
+                            String shippingAddress,
+                            LocalDateTime createdAt,
+                            LocalDateTime updatedAt) {
+
+    public static OrderResponse from(Order order) {
+        List<OrderItemResponse> items = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            items.add(OrderItemResponse.from(item));
+        }
+        return new OrderResponse(order.getId(), UserSummary.from(order.getUser()), items,
+                order.getTotalAmount(), order.getStatus(), order.getShippingAddress(),
+                order.getCreatedAt(), order.getUpdatedAt());
+    }
+
+    public record UserSummary(Long id,
+                              String username,
+                              String email,
+                              String firstName,
+                              String lastName,
+                              User.Role role) {
+
+        public static UserSummary from(User user) {
+            return new UserSummary(user.getId(), user.getUsername(), user.getEmail(),
+                    user.getFirstName(), user.getLastName(), user.getRole());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.service.OrderSubmission;
+
+public record OrderSubmissionResponse(String id,
+                                      OrderSubmission.Status status,
+                                      OrderResponse order,
+                                      String error) {
+
+    public static OrderSubmissionResponse from(OrderSubmission submission) {
+        // Status is read first; the order and error are published before it changes
+        OrderSubmission.Status status = submission.getStatus();
+        return new OrderSubmissionResponse(submission.getId(), status, submission.getOrder(), submission.getError());
+    }
+}
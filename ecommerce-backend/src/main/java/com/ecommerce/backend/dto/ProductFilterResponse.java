@@ -0,0 +1,22 @@
+package com.ecommerce.backend.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A page of filtered products with facet counts. Each facet's counts apply every other
+ * filter but not its own, so they tell how many products a different choice would match.
+ */
+public record ProductFilterResponse(Page<ProductResponse> products,
+                                    List<CategoryFacet> categories,
+                                    List<PriceFacet> priceRanges) {
+
+    public record CategoryFacet(Long id, String name, int count) {
+    }
+
+    /** {@code max} is exclusive and null for the open-ended top range. */
+    public record PriceFacet(BigDecimal min, BigDecimal max, int count) {
+    }
+}
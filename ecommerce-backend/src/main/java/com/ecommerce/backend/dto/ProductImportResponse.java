@@ -0,0 +1,19 @@
+package com.ecommerce.backend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a product import. Only the first few rejected rows are listed in errors;
+ * errorsTruncated tells whether more were rejected than listed.
+ */
+public record ProductImportResponse(long rows,
+                                    long inserted,
+                                    long updated,
+                                    long failed,
+                                    List<RowError> errors,
+                                    boolean errorsTruncated) {
+
+    /** A rejected row and why; line is where the row starts in the upload. */
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a product import. Rows with an id update that product, changing only the
+ * fields present; rows without one create a product. The category is given by name.
+ */
+public record ProductImportRow(Long id,
+                               String name,
+                               String description,
+                               BigDecimal price,
+                               Integer stockQuantity,
+                               String imageUrl,
+                               String category) {
+}
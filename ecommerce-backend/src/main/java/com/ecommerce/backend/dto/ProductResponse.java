@@ -0,0 +1,24 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ProductResponse(Long id,
+                              String name,
+                              String description,
+                              BigDecimal price,
+                              Integer stockQuantity,
+                              String imageUrl,
+                              CategoryResponse category,
+                              LocalDateTime createdAt,
+                              LocalDateTime updatedAt) {
+
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getStockQuantity(), product.getImageUrl(),
+                CategoryResponse.from(product.getCategory()),
+                product.getCreatedAt(), product.getUpdatedAt());
+    }
+}
@@ -10,10 +10,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Order.WITH_ITEMS_AND_PRODUCTS,
+    attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "orderItems", subgraph = "items")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+        @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category"))
+    })
 @Table(name = "orders")
 public class Order {
+    /** Everything OrderResponse reads: user, items, their products and categories. */
+    public static final String WITH_ITEMS_AND_PRODUCTS = "Order.withItemsAndProducts";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
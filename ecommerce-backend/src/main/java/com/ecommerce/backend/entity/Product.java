@@ -16,7 +16,8 @@ import java.util.List;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -31,6 +32,7 @@ public class Product {
     private BigDecimal price;
 
     @Min(0)
+    @Column(name = "stock_quantity")
     private Integer stockQuantity;
 
     @Size(max = 500)
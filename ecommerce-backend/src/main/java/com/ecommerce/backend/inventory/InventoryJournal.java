@@ -0,0 +1,216 @@
+package com.ecommerce.backend.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only file record of ledger stock movements, one line per product and movement:
+ * {@code R <productId> <quantity>} for a reservation and {@code U <productId> <quantity>}
+ * for undoing one whose transaction rolled back. The journal is split into numbered
+ * segments; the ledger rotates to a new segment, applies the finished one to the products
+ * table and deletes it.
+ *
+ * Segment files are named after the database epoch they belong to, so a journal left
+ * behind by a different (for example in-memory) database is never replayed into this one.
+ *
+ * With fsync enabled an append returns only once it is on disk. Appenders that arrive
+ * while a force is running are covered by the next one, so concurrent checkouts share
+ * their fsyncs instead of paying one each.
+ */
+final class InventoryJournal {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryJournal.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("(.+)-(\\d+)\\.journal");
+
+    private final Path directory;
+    private final String epoch;
+    private final boolean fsync;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private long segment;
+    private boolean written;
+    private long appended;
+    private final AtomicLong synced = new AtomicLong();
+
+    InventoryJournal(Path directory, String epoch, boolean fsync) {
+        this.directory = directory;
+        this.epoch = epoch;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create inventory journal directory " + directory, e);
+        }
+    }
+
+    /**
+     * Segment numbers left on disk for this epoch, oldest first. Segments of other epochs
+     * are renamed to {@code .orphaned} and left for inspection.
+     */
+    List<Long> existingSegments() {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                if (matcher.group(1).equals(epoch)) {
+                    segments.add(Long.parseLong(matcher.group(2)));
+                } else {
+                    logger.warn("Ignoring inventory journal {} from another database", file);
+                    Files.move(file, file.resolveSibling(file.getFileName() + ".orphaned"));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list inventory journal directory " + directory, e);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    void open(long firstSegment) {
+        synchronized (writeLock) {
+            segment = firstSegment;
+            channel = openSegment(firstSegment);
+            written = false;
+        }
+    }
+
+    void append(String lines) {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines);
+        long sequence;
+        synchronized (writeLock) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write inventory journal", e);
+            }
+            written = true;
+            sequence = ++appended;
+        }
+        if (fsync) {
+            sync(sequence);
+        }
+    }
+
+    private void sync(long sequence) {
+        synchronized (syncLock) {
+            if (synced.get() >= sequence) {
+                return;
+            }
+            long upTo;
+            FileChannel target;
+            synchronized (writeLock) {
+                upTo = appended;
+                target = channel;
+            }
+            try {
+                target.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated meanwhile; rotate forces the segment before closing it
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot sync inventory journal", e);
+            }
+            synced.accumulateAndGet(upTo, Math::max);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts the next one.
+     *
+     * @return the closed segment's number, or -1 if nothing was written to it
+     */
+    long rotate() {
+        synchronized (writeLock) {
+            if (!written) {
+                return -1;
+            }
+            try {
+                if (fsync) {
+                    channel.force(false);
+                }
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close inventory journal segment " + segment, e);
+            }
+            synced.accumulateAndGet(appended, Math::max);
+            long finished = segment;
+            open(finished + 1);
+            return finished;
+        }
+    }
+
+    /**
+     * Net stock change per product recorded in a finished segment. A last line without its
+     * newline was cut off by a crash before its transaction could commit, so it is skipped.
+     */
+    Map<Long, Long> read(long finishedSegment) {
+        String content;
+        try {
+            content = Files.readString(file(finishedSegment), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read inventory journal segment " + finishedSegment, e);
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; start = end + 1, end = content.indexOf('\n', start)) {
+            String[] fields = content.substring(start, end).split(" ");
+            long quantity = Long.parseLong(fields[2]);
+            deltas.merge(Long.parseLong(fields[1]), fields[0].equals("R") ? -quantity : quantity, Long::sum);
+        }
+        return deltas;
+    }
+
+    void delete(long finishedSegment) {
+        try {
+            Files.deleteIfExists(file(finishedSegment));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete inventory journal segment " + finishedSegment, e);
+        }
+    }
+
+    void close() {
+        synchronized (writeLock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Closing inventory journal failed", e);
+            }
+        }
+    }
+
+    private FileChannel openSegment(long number) {
+        try {
+            return FileChannel.open(file(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open inventory journal segment " + number, e);
+        }
+    }
+
+    private Path file(long number) {
+        return directory.resolve(String.format("%s-%012d.journal", epoch, number));
+    }
+}
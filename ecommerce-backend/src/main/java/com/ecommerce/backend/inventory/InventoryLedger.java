@@ -0,0 +1,542 @@
+package com.ecommerce.backend.inventory;
+
+import com.ecommerce.backend.cache.CatalogCache;
+import com.ecommerce.backend.cache.ProductFeeds;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Optional in-memory owner of product stock (inventory.ledger.enabled). Each product's
+ * available count is a {@link StripedCounter}, loaded from the products row on first use,
+ * and checkouts reserve against it with CAS instead of a conditional UPDATE, so the row
+ * stops being the lock every checkout of a hot product queues on.
+ *
+ * Reservations are written to the {@link InventoryJournal} before their transaction commits
+ * and undone in memory (and journaled as undone) if it rolls back. A flusher thread
+ * periodically rotates the journal and applies the finished segment's net change per
+ * product to the products table in one JDBC batch, recording the segment as applied in the
+ * same transaction. On startup, segments that were written but not applied are replayed,
+ * so a crash loses no committed reservation and never applies one twice.
+ *
+ * The stock column, and everything derived from it (product responses, availability feed,
+ * facets), therefore lags the ledger by up to one flush interval.
+ *
+ * A direct write of a product row ({@link #writeThrough}) seals the product: new
+ * reservations of it wait, and the write waits until every transaction holding one of
+ * its reservations has finished. Only then is the journal applied and the row written,
+ * and the product's counter is dropped when the write's transaction completes, so the
+ * next reservation reloads it from a row that accounts for every earlier reservation.
+ */
+@Component
+public class InventoryLedger {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedger.class);
+
+    // A write that cannot drain a product's reservations this long lifts its seals and
+    // tries again, in case a transaction holding one is itself waiting on another seal
+    private static final long DRAIN_TIMEOUT_MS = 1000;
+    private static final long RESEAL_BACKOFF_MS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductFeeds productFeeds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.ledger.enabled:false}")
+    private boolean enabled;
+
+    // 0 = twice the available processors
+    @Value("${inventory.ledger.stripes:0}")
+    private int stripes;
+
+    @Value("${inventory.ledger.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    // Required when enabled: the journal is what recovers reservations after a crash
+    @Value("${inventory.ledger.journal-dir:}")
+    private String journalDir;
+
+    @Value("${inventory.ledger.journal-fsync:true}")
+    private boolean journalFsync;
+
+    private final Map<Long, ProductStock> counters = new ConcurrentHashMap<>();
+    // Products being written directly, and a count of seals ever taken: a counter loaded
+    // while a seal was taken may have read the row before the write and is thrown away
+    private final Set<Long> sealed = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sealCount = new AtomicLong();
+    private final Object sealMonitor = new Object();
+    private final Object flushLock = new Object();
+    // Finished journal segments not yet applied to the products table, oldest first
+    private final Deque<Long> unapplied = new ConcurrentLinkedDeque<>();
+    private InventoryJournal journal;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!StringUtils.hasText(journalDir)) {
+            throw new IllegalStateException(
+                    "inventory.ledger.journal-dir must name a durable directory when the inventory ledger is enabled");
+        }
+        if (Path.of(journalDir).toAbsolutePath().startsWith(Path.of(System.getProperty("java.io.tmpdir")))) {
+            logger.warn("Inventory journal {} is under the temporary directory and may not survive a reboot",
+                    journalDir);
+        }
+        if (stripes <= 0) {
+            stripes = 2 * Runtime.getRuntime().availableProcessors();
+        }
+        recover();
+        Gauge.builder("inventory.ledger.unapplied.segments", unapplied, Deque::size)
+                .description("Journal segments waiting to be applied to the products table")
+                .register(meterRegistry);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                logger.error("Applying the inventory journal failed, retrying in {} ms", flushIntervalMillis, e);
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves every line or none of them. Inside a transaction the reservation is journaled
+     * before commit and given back on rollback; outside one it is journaled immediately.
+     * Lines of a product that is being written directly wait for that write to finish.
+     *
+     * @param lines quantities by product id; products not yet in memory are loaded from
+     *              their row
+     * @return the ids of the products that were short, empty if everything was reserved
+     */
+    public List<Long> reserve(Map<Long, Integer> lines) {
+        Map<Long, ProductStock> stocks = acquire(lines.keySet());
+        Map<Long, Integer> taken = new HashMap<>();
+        List<Long> shortIds = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            if (stocks.get(line.getKey()).available.tryTake(line.getValue())) {
+                taken.put(line.getKey(), line.getValue());
+            } else {
+                shortIds.add(line.getKey());
+            }
+        }
+        if (!shortIds.isEmpty()) {
+            taken.forEach((id, quantity) -> stocks.get(id).available.add(quantity));
+            release(stocks);
+            return shortIds;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingReservations pending = (PendingReservations) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                pending = new PendingReservations();
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                pending.reserved.merge(line.getKey(), line.getValue(), Integer::sum);
+            }
+            // Held until the transaction completes, so a direct write waits for it
+            pending.held.add(stocks);
+        } else {
+            try {
+                journal.append(journalLines('R', lines));
+            } finally {
+                release(stocks);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Runs a direct write of a product's row, such as saving or deleting it. The product is
+     * sealed while every transaction holding a reservation of it finishes, then journaled
+     * reservations are applied so the write sees current stock. Reservations of the product
+     * wait until the write's transaction (the caller's, if there is one) has completed; the
+     * count is then reloaded from the row on the next reservation.
+     */
+    public <T> T writeThrough(Long productId, Supplier<T> write) {
+        return writeThrough(List.of(productId), write);
+    }
+
+    /** {@link #writeThrough(Long, Supplier)} for a write covering several products. */
+    public <T> T writeThrough(Collection<Long> productIds, Supplier<T> write) {
+        if (!enabled) {
+            return write.get();
+        }
+        Set<Long> ids = new TreeSet<>(productIds);
+        seal(ids);
+        boolean unsealLater = false;
+        try {
+            flush();
+            T result = write.get();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Until the outer transaction commits, a reload would still read the old row
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        unseal(ids);
+                    }
+                });
+                unsealLater = true;
+            }
+            return result;
+        } finally {
+            if (!unsealLater) {
+                unseal(ids);
+            }
+        }
+    }
+
+    /** Applies every reservation journaled so far to the products table. */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            long finished = journal.rotate();
+            if (finished >= 0) {
+                unapplied.addLast(finished);
+            }
+            applyUnapplied(true);
+        }
+    }
+
+    // Marks each product's counter as in use by a reservation, once none of them is sealed
+    private Map<Long, ProductStock> acquire(Collection<Long> ids) {
+        Map<Long, ProductStock> stocks = new HashMap<>(ids.size() * 2);
+        while (true) {
+            for (Long id : ids) {
+                stocks.put(id, load(id));
+            }
+            stocks.values().forEach(stock -> stock.inUse.increment());
+            // A seal taken after these checks waits for the marks made before them
+            boolean current = true;
+            for (Map.Entry<Long, ProductStock> entry : stocks.entrySet()) {
+                if (sealed.contains(entry.getKey()) || counters.get(entry.getKey()) != entry.getValue()) {
+                    current = false;
+                    break;
+                }
+            }
+            if (current) {
+                return stocks;
+            }
+            // Never wait for a seal while holding marks, or the write would wait for us
+            release(stocks);
+            stocks.clear();
+            awaitUnsealed(ids);
+        }
+    }
+
+    private void release(Map<Long, ProductStock> stocks) {
+        boolean drained = false;
+        for (Map.Entry<Long, ProductStock> entry : stocks.entrySet()) {
+            entry.getValue().inUse.decrement();
+            drained |= sealed.contains(entry.getKey());
+        }
+        if (drained) {
+            synchronized (sealMonitor) {
+                sealMonitor.notifyAll();
+            }
+        }
+    }
+
+    private ProductStock load(Long id) {
+        while (true) {
+            ProductStock stock = counters.get(id);
+            if (stock != null) {
+                return stock;
+            }
+            awaitUnsealed(List.of(id));
+            long seals = sealCount.get();
+            // The row, not the caller's entity: it may have been read before a direct write
+            Integer quantity = jdbcTemplate.query("SELECT stock_quantity FROM products WHERE id = ?",
+                    rows -> rows.next() ? (Integer) rows.getObject(1) : null, id);
+            ProductStock loaded = new ProductStock(new StripedCounter(quantity != null ? quantity : 0, stripes));
+            stock = counters.putIfAbsent(id, loaded);
+            if (stock != null) {
+                return stock;
+            }
+            if (sealCount.get() == seals) {
+                return loaded;
+            }
+            counters.remove(id, loaded);
+        }
+    }
+
+    private void awaitUnsealed(Collection<Long> ids) {
+        synchronized (sealMonitor) {
+            while (ids.stream().anyMatch(sealed::contains)) {
+                try {
+                    sealMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a product write", e);
+                }
+            }
+        }
+    }
+
+    // Takes the seals, then waits until no reservation holds the products' counters
+    private void seal(Set<Long> ids) {
+        synchronized (sealMonitor) {
+            while (true) {
+                while (ids.stream().anyMatch(sealed::contains)) {
+                    waitForSeals(0);
+                }
+                sealed.addAll(ids);
+                sealCount.incrementAndGet();
+
+                long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+                long remaining = DRAIN_TIMEOUT_MS;
+                while (inUse(ids) && remaining > 0) {
+                    waitForSeals(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                if (!inUse(ids)) {
+                    return;
+                }
+                logger.debug("Reservations of {} still open after {} ms, resealing", ids, DRAIN_TIMEOUT_MS);
+                sealed.removeAll(ids);
+                sealMonitor.notifyAll();
+                waitForSeals(RESEAL_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void unseal(Set<Long> ids) {
+        ids.forEach(counters::remove);
+        synchronized (sealMonitor) {
+            sealed.removeAll(ids);
+            sealMonitor.notifyAll();
+        }
+    }
+
+    private boolean inUse(Set<Long> ids) {
+        for (Long id : ids) {
+            ProductStock stock = counters.get(id);
+            if (stock != null && stock.inUse.sum() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Caller holds sealMonitor; 0 waits until notified
+    private void waitForSeals(long millis) {
+        try {
+            sealMonitor.wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to write products " + sealed, e);
+        }
+    }
+
+    private void recover() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT epoch, applied_segment FROM inventory_journal_state WHERE id = 1");
+        String epoch;
+        long applied;
+        if (rows.isEmpty()) {
+            epoch = UUID.randomUUID().toString();
+            applied = 0;
+            jdbcTemplate.update("INSERT INTO inventory_journal_state (id, epoch, applied_segment) VALUES (1, ?, 0)",
+                    epoch);
+        } else {
+            epoch = (String) rows.get(0).get("EPOCH");
+            applied = ((Number) rows.get(0).get("APPLIED_SEGMENT")).longValue();
+        }
+
+        journal = new InventoryJournal(Path.of(journalDir), epoch, journalFsync);
+        long next = applied + 1;
+        for (long segment : journal.existingSegments()) {
+            if (segment <= applied) {
+                journal.delete(segment);
+            } else {
+                unapplied.addLast(segment);
+            }
+            next = Math.max(next, segment + 1);
+        }
+        int replayed = unapplied.size();
+        synchronized (flushLock) {
+            applyUnapplied(false);
+        }
+        journal.open(next);
+        logger.info("Inventory ledger ready ({} stripes, journal {}), replayed {} journal segments",
+                stripes, journalDir, replayed);
+    }
+
+    // Caller holds flushLock. A delta that would take a row below zero (the row was lowered
+    // by something outside the ledger) is clamped and logged; failing on the stock check
+    // would retry the same segment forever and stall every later flush.
+    private void applyUnapplied(boolean notify) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        while (!unapplied.isEmpty()) {
+            long segment = unapplied.getFirst();
+            Map<Long, Long> deltas = journal.read(segment);
+            deltas.values().removeIf(delta -> delta == 0);
+            List<Object[]> updates = new ArrayList<>(deltas.size());
+            deltas.forEach((id, delta) -> updates.add(new Object[]{delta, id}));
+            template.executeWithoutResult(status -> {
+                logClamped(segment, deltas);
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE products SET stock_quantity = GREATEST(stock_quantity + ?, 0) WHERE id = ?",
+                            updates);
+                }
+                jdbcTemplate.update("UPDATE inventory_journal_state SET applied_segment = ? WHERE id = 1", segment);
+            });
+            unapplied.removeFirst();
+            journal.delete(segment);
+            if (notify && !deltas.isEmpty()) {
+                catalogCache.evictProducts(deltas.keySet());
+                productFeeds.productsChanged(deltas.keySet());
+            }
+        }
+    }
+
+    private void logClamped(long segment, Map<Long, Long> deltas) {
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            if (delta.getValue() >= 0) {
+                continue;
+            }
+            Integer stock = jdbcTemplate.query("SELECT stock_quantity FROM products WHERE id = ? FOR UPDATE",
+                    rows -> rows.next() ? (Integer) rows.getObject(1) : null, delta.getKey());
+            if (stock != null && stock + delta.getValue() < 0) {
+                logger.error("Journal segment {} takes {} units of product {} but its row has {}; setting it to 0",
+                        segment, -delta.getValue(), delta.getKey(), stock);
+            }
+        }
+    }
+
+    private static String journalLines(char type, Map<Long, Integer> lines) {
+        StringBuilder text = new StringBuilder(lines.size() * 16);
+        lines.forEach((id, quantity) -> text.append(type).append(' ').append(id).append(' ')
+                .append(quantity).append('\n'));
+        return text.toString();
+    }
+
+    /** A product's available count and the reservations currently relying on it. */
+    private static final class ProductStock {
+        private final StripedCounter available;
+        private final LongAdder inUse = new LongAdder();
+
+        private ProductStock(StripedCounter available) {
+            this.available = available;
+        }
+    }
+
+    /** Everything one transaction reserved, journaled once when it commits. */
+    private final class PendingReservations implements TransactionSynchronization {
+        private final Map<Long, Integer> reserved = new TreeMap<>();
+        private final List<Map<Long, ProductStock>> held = new ArrayList<>();
+        private boolean journaled;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            journal.append(journalLines('R', reserved));
+            journaled = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(InventoryLedger.this);
+            try {
+                releaseOrKeep(status);
+            } finally {
+                held.forEach(InventoryLedger.this::release);
+            }
+        }
+
+        private void releaseOrKeep(int status) {
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            if (status == STATUS_UNKNOWN) {
+                // The order may have been stored; keeping the stock reserved cannot oversell
+                logger.warn("Transaction outcome unknown, keeping inventory reserved: {}", reserved);
+                return;
+            }
+            // Journal the undo before the stock becomes available again, so a journal prefix
+            // never holds a later reservation of the same units without this undo
+            if (journaled) {
+                try {
+                    journal.append(journalLines('U', reserved));
+                } catch (RuntimeException e) {
+                    logger.error("Could not journal released inventory {}", reserved, e);
+                }
+            }
+            // Still the counters the units came from: a write cannot drop them while held
+            Map<Long, ProductStock> stocks = new HashMap<>();
+            held.forEach(stocks::putAll);
+            reserved.forEach((id, quantity) -> stocks.get(id).available.add(quantity));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.backend.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A non-negative count split over several independently updated stripes. Callers start at
+ * a random stripe, so concurrent takes from one hot product mostly CAS different cache
+ * lines instead of all retrying on one. The total is never allowed below zero: a take only
+ * succeeds if it can be covered by what the stripes hold.
+ *
+ * A take larger than its starting stripe borrows from the next ones and gives everything
+ * back if the total is short. While it holds those units a concurrent take can be refused
+ * although the total would have covered it; this only happens when stock is nearly gone.
+ */
+public final class StripedCounter {
+    // Longs per 64-byte cache line, so neighbouring stripes do not share a line
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * @param stripes rounded up to a power of two
+     */
+    public StripedCounter(long initial, int stripes) {
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = count - 1;
+        this.cells = new AtomicLongArray(count * PAD);
+        long share = Math.max(0, initial) / count;
+        long remainder = Math.max(0, initial) % count;
+        for (int stripe = 0; stripe < count; stripe++) {
+            cells.set(stripe * PAD, share + (stripe < remainder ? 1 : 0));
+        }
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum += cells.get(stripe * PAD);
+        }
+        return sum;
+    }
+
+    /** Takes {@code amount} units if available, otherwise takes nothing. */
+    public boolean tryTake(long amount) {
+        int start = ThreadLocalRandom.current().nextInt(mask + 1);
+        long remaining = amount;
+        long[] borrowed = null;
+        for (int i = 0; i <= mask && remaining > 0; i++) {
+            int stripe = (start + i) & mask;
+            int index = stripe * PAD;
+            long available;
+            do {
+                available = cells.get(index);
+            } while (available > 0 && !cells.compareAndSet(index, available,
+                    available - Math.min(available, remaining)));
+            if (available > 0) {
+                long taken = Math.min(available, remaining);
+                remaining -= taken;
+                if (remaining > 0) {
+                    if (borrowed == null) {
+                        borrowed = new long[mask + 1];
+                    }
+                    borrowed[stripe] += taken;
+                }
+            }
+        }
+        if (remaining == 0) {
+            return true;
+        }
+        if (borrowed != null) {
+            for (int stripe = 0; stripe <= mask; stripe++) {
+                if (borrowed[stripe] > 0) {
+                    cells.addAndGet(stripe * PAD, borrowed[stripe]);
+                }
+            }
+        }
+        return false;
+    }
+
+    public void add(long amount) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(mask + 1) * PAD, amount);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread into the open
+ * {@link StatementCapture}, if any. Registered as the session factory's statement
+ * inspector by MetricsConfig; statements issued outside a capture are ignored.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    private final ThreadLocal<StatementCapture> current = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        StatementCapture capture = current.get();
+        if (capture != null) {
+            capture.record(sql);
+        }
+        return sql;
+    }
+
+    /** Opens a capture on the current thread; close it on the same thread. */
+    public StatementCapture begin() {
+        StatementCapture capture = new StatementCapture(this, current.get());
+        current.set(capture);
+        return capture;
+    }
+
+    void end(StatementCapture capture) {
+        StatementCapture parent = capture.getParent();
+        if (parent != null) {
+            parent.absorb(capture);
+            current.set(parent);
+        } else {
+            current.remove();
+        }
+    }
+}
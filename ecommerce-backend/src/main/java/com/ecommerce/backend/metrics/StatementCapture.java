@@ -0,0 +1,146 @@
+package com.ecommerce.backend.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The Hibernate statements issued on one thread while this capture was open, grouped by
+ * SQL text with the application frame that first issued each one. Captures nest: closing
+ * one adds its statements to the capture that was open before it, so a test can wrap a
+ * MockMvc call while StatementCountingFilter captures the same request.
+ *
+ * <pre>
+ * try (StatementCapture capture = sqlStatementCounter.begin()) {
+ *     mockMvc.perform(get("/orders/my-orders")...);
+ *     capture.assertAtMost(3);
+ *     capture.assertNoRepeatedSelects();
+ * }
+ * </pre>
+ */
+public class StatementCapture implements AutoCloseable {
+    private static final String APPLICATION_PACKAGE = "com.ecommerce.backend.";
+    private static final String METRICS_PACKAGE = "com.ecommerce.backend.metrics.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final SqlStatementCounter counter;
+    private final StatementCapture parent;
+    private final Map<String, Statement> statements = new LinkedHashMap<>();
+    private int count;
+    private boolean closed;
+
+    StatementCapture(SqlStatementCounter counter, StatementCapture parent) {
+        this.counter = counter;
+        this.parent = parent;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /** Distinct statements, most frequently issued first. */
+    public List<Statement> statements() {
+        List<Statement> result = new ArrayList<>(statements.values());
+        result.sort(Comparator.comparingInt(Statement::getCount).reversed());
+        return result;
+    }
+
+    /** Highest number of times any single SELECT was issued; above 1 usually means N+1. */
+    public int maxSelectRepeats() {
+        int max = 0;
+        for (Statement statement : statements.values()) {
+            if (statement.isSelect()) {
+                max = Math.max(max, statement.getCount());
+            }
+        }
+        return max;
+    }
+
+    public void assertAtMost(int budget) {
+        if (count > budget) {
+            throw new AssertionError("Expected at most " + budget + " SQL statements but " + count
+                    + " were issued:\n" + report());
+        }
+    }
+
+    public void assertNoRepeatedSelects() {
+        if (maxSelectRepeats() > 1) {
+            throw new AssertionError("A SELECT was issued " + maxSelectRepeats() + " times:\n" + report());
+        }
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (Statement statement : statements()) {
+            report.append(String.format("  %4dx at %s: %s%n",
+                    statement.getCount(), statement.getCallSite(), statement.getSql()));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            counter.end(this);
+        }
+    }
+
+    StatementCapture getParent() {
+        return parent;
+    }
+
+    void record(String sql) {
+        count++;
+        statements.computeIfAbsent(sql, key -> new Statement(key, callSite())).count++;
+    }
+
+    void absorb(StatementCapture child) {
+        count += child.count;
+        child.statements.forEach((sql, statement) ->
+                statements.computeIfAbsent(sql, key -> new Statement(key, statement.callSite)).count += statement.count);
+    }
+
+    // Only walked once per distinct statement, so repeated statements cost a map lookup
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(METRICS_PACKAGE)
+                        && !frame.getClassName().contains("$$")
+                        && !frame.getClassName().contains("$HibernateProxy$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(APPLICATION_PACKAGE.length()) + "."
+                        + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    public static class Statement {
+        private final String sql;
+        private final String callSite;
+        private int count;
+
+        Statement(String sql, String callSite) {
+            this.sql = sql;
+            this.callSite = callSite;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getCallSite() {
+            return callSite;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isSelect() {
+            return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+        }
+    }
+}
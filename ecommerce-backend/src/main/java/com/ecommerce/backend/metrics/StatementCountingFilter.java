@@ -0,0 +1,88 @@
+package com.ecommerce.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many Hibernate statements each request issued, tagged like
+ * http.server.requests so the two can be read side by side, and flags requests that
+ * exceed the statement budget or repeat a SELECT, the usual sign of an N+1 lazy load.
+ * Flagged requests are logged with the call site of every statement; with
+ * sql.statement-budget.fail=true (for integration tests) they also fail.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql.statement-budget.max-statements:50}")
+    private int maxStatements;
+
+    @Value("${sql.statement-budget.max-select-repeats:5}")
+    private int maxSelectRepeats;
+
+    @Value("${sql.statement-budget.fail:false}")
+    private boolean failOnViolation;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StatementCapture capture = statementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            capture.close();
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("Hibernate SQL statements issued while handling a request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri(request))
+                    .register(meterRegistry)
+                    .record(capture.count());
+        }
+        checkBudget(request, capture);
+    }
+
+    private void checkBudget(HttpServletRequest request, StatementCapture capture) {
+        int selectRepeats = capture.maxSelectRepeats();
+        if (capture.count() <= maxStatements && selectRepeats <= maxSelectRepeats) {
+            return;
+        }
+        meterRegistry.counter("http.server.requests.sql.budget.exceeded",
+                "method", request.getMethod(), "uri", uri(request)).increment();
+        String message = String.format("%s %s issued %d SQL statements (budget %d), most repeated SELECT %d times "
+                        + "(limit %d):%n%s", request.getMethod(), request.getRequestURI(), capture.count(),
+                maxStatements, selectRepeats, maxSelectRepeats, capture.report());
+        if (failOnViolation) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        // Only the matched pattern is used, so path variables do not explode the tag values
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce.backend.pagination;
+
+import com.ecommerce.backend.dto.CursorPage;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.sqm.NullPrecedence;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe continuation tokens. A token holds the
+ * values of the sort properties of the last row of a slice, so the next slice is read with
+ * a seek predicate instead of an offset.
+ *
+ * Sort properties may be null. Nulls sort last in either direction and a null key is written
+ * as the bare property name, so the seek predicate can tell it apart from the string "null".
+ * Only scalar columns can be sort keys; an association has no value a token could carry.
+ */
+public final class KeysetCursor {
+    private static final Set<Class<?>> SCALAR_TYPES =
+            Set.of(Long.class, Integer.class, BigDecimal.class, LocalDateTime.class, String.class);
+
+    private KeysetCursor() {}
+
+    /**
+     * Keyset ordering needs a unique tie-breaker; appends {@code id} in the direction of the
+     * primary sort unless the sort already ends with it.
+     */
+    public static Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode}; an empty token starts from the beginning.
+     *
+     * @throws IllegalArgumentException if the sort is on anything but scalar columns, or the
+     *                                  token is malformed or was issued for a different sort
+     */
+    public static KeysetScrollPosition decode(String token, Sort sort, Class<?> entityClass) {
+        // Checked before the first slice too, so an unusable sort fails here rather than on the next page
+        for (Sort.Order order : sort) {
+            propertyType(entityClass, order.getProperty());
+        }
+        if (!StringUtils.hasText(token)) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            for (String pair : decoded.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator < 0) {
+                    String property = URLDecoder.decode(pair, StandardCharsets.UTF_8);
+                    propertyType(entityClass, property);
+                    keys.put(property, null);
+                    continue;
+                }
+                String property = URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8);
+                String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                keys.put(property, convert(value, propertyType(entityClass, property)));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+
+        Set<String> sortProperties = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!sortProperties.equals(keys.keySet())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        return encode(position.getKeys());
+    }
+
+    private static String encode(Map<String, Object> keys) {
+        StringBuilder encoded = new StringBuilder();
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            if (encoded.length() > 0) {
+                encoded.append('&');
+            }
+            encoded.append(URLEncoder.encode(key.getKey(), StandardCharsets.UTF_8));
+            if (key.getValue() != null) {
+                encoded.append('=')
+                        .append(URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8));
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(encoded.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Orders the query by {@code sort} with nulls last and restricts it to the rows after
+     * {@code position}. Spring Data's own keyset scrolling compares against null keys as if
+     * they were values, so the seek predicate is built here with an IS NULL branch instead.
+     * The query must not be sorted again; read {@code size + 1} rows and pass them to
+     * {@link #toCursorPage}.
+     */
+    public static <T> Specification<T> seek(KeysetScrollPosition position, Sort sort) {
+        return (root, query, cb) -> {
+            List<Order> orders = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Expression<?> path = root.get(order.getProperty());
+                JpaOrder jpaOrder = (JpaOrder) (order.isAscending() ? cb.asc(path) : cb.desc(path));
+                // Ids are never null, and leaving them plain keeps the primary key usable for the sort
+                orders.add(isId(order) ? jpaOrder : jpaOrder.nullPrecedence(NullPrecedence.LAST));
+            }
+            query.orderBy(orders);
+            if (position.isInitial()) {
+                return null;
+            }
+
+            // (k1 after v1) or (k1 = v1 and k2 after v2) or ...
+            Map<String, Object> keys = position.getKeys();
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Object value = keys.get(order.getProperty());
+                Predicate after = after(root, cb, order, value);
+                if (after != null) {
+                    List<Predicate> alternative = new ArrayList<>(equalSoFar);
+                    alternative.add(after);
+                    alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+                }
+                Expression<?> path = root.get(order.getProperty());
+                equalSoFar.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+            }
+            return alternatives.isEmpty() ? cb.disjunction() : cb.or(alternatives.toArray(Predicate[]::new));
+        };
+    }
+
+    // Null when nothing sorts after the value, which for nulls-last ordering is a null value
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(Root<?> root, CriteriaBuilder cb, Sort.Order order, Object value) {
+        if (value == null) {
+            return null;
+        }
+        Expression<Comparable> path = root.get(order.getProperty());
+        Comparable key = (Comparable) value;
+        Predicate beyond = order.isAscending() ? cb.greaterThan(path, key) : cb.lessThan(path, key);
+        return isId(order) ? beyond : cb.or(beyond, cb.isNull(path));
+    }
+
+    private static boolean isId(Sort.Order order) {
+        return order.getProperty().equals("id");
+    }
+
+    /**
+     * @param rows up to {@code size + 1} rows read with {@link #seek}; the extra row only
+     *             signals that there is a next slice
+     */
+    public static <T, R> CursorPage<R> toCursorPage(List<T> rows, int size, Sort sort,
+                                                    Function<? super T, ? extends R> mapper) {
+        List<T> slice = rows.size() > size ? rows.subList(0, size) : rows;
+        List<R> content = slice.stream().<R>map(mapper).toList();
+        String nextCursor = null;
+        if (rows.size() > size && !slice.isEmpty()) {
+            BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(slice.get(slice.size() - 1));
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order order : sort) {
+                keys.put(order.getProperty(), last.getPropertyValue(order.getProperty()));
+            }
+            nextCursor = encode(keys);
+        }
+        return new CursorPage<>(content, content.size(), nextCursor != null, nextCursor);
+    }
+
+    private static Class<?> propertyType(Class<?> entityClass, String property) {
+        Field field = ReflectionUtils.findField(entityClass, property);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown cursor property: " + property);
+        }
+        Class<?> type = field.getType();
+        if (!SCALAR_TYPES.contains(type) && !type.isEnum()) {
+            throw new IllegalArgumentException("Cannot sort a cursor by " + property);
+        }
+        return type;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(String value, Class<?> type) {
+        if (type == Long.class) return Long.valueOf(value);
+        if (type == Integer.class) return Integer.valueOf(value);
+        if (type == BigDecimal.class) return new BigDecimal(value);
+        if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+        if (type == String.class) return value;
+        if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, value);
+        throw new IllegalArgumentException("Unsupported cursor property type: " + type.getSimpleName());
+    }
+}
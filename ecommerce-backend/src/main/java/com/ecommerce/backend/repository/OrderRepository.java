@@ -1,19 +1,38 @@
 package com.ecommerce.backend.repository;
 
+import com.ecommerce.backend.dto.OrderExportRow;
 import com.ecommerce.backend.entity.Order;
 import com.ecommerce.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     Page<Order> findByUser(User user, Pageable pageable);
-    
+
+    // First phase of a paged order history: paginating ids avoids the in-memory pagination
+    // Hibernate falls back to when a page limit is combined with a collection fetch.
+    @Query("SELECT o.id FROM Order o WHERE o.user = :user")
+    Page<Long> findIdsByUser(@Param("user") User user, Pageable pageable);
+
+    // Second phase: the page's orders with items, products and categories in one query
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
     List<Order> findByUserOrderByCreatedAtDesc(User user);
     
     @Query("SELECT o FROM Order o WHERE o.user = :user AND o.status = :status")
@@ -22,4 +41,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT COUNT(o) FROM Order o WHERE o.user = :user")
     Long countByUser(@Param("user") User user);
-}
\ No newline at end of file
+
+    // Every order with its customer and items as flat rows, grouped by order. Orders without
+    // items come back as a single row with null item columns. Rows are projections rather than
+    // entities, so nothing accumulates in the persistence context while the stream is read.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecommerce.backend.dto.OrderExportRow(o.id, u.id, u.username, o.status, " +
+           "o.totalAmount, o.shippingAddress, o.createdAt, p.id, p.name, oi.quantity, oi.price) " +
+           "FROM Order o JOIN o.user u LEFT JOIN o.orderItems oi LEFT JOIN oi.product p " +
+           "ORDER BY o.id, oi.id")
+    Stream<OrderExportRow> streamAllForExport();
+}
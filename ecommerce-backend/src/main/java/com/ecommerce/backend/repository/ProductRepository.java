@@ -4,33 +4,81 @@ import com.ecommerce.backend.entity.Product;
 import com.ecommerce.backend.entity.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+// Catalog reads fetch the category in the same statement; responses always render it.
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = "category")
     Page<Product> findByCategory(Category category, Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:name%")
     Page<Product> findByNameContaining(@Param("name") String name, Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
     Page<Product> findByPriceBetween(@Param("minPrice") BigDecimal minPrice, 
                                    @Param("maxPrice") BigDecimal maxPrice, 
                                    Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.category = :category AND p.price BETWEEN :minPrice AND :maxPrice")
     Page<Product> findByCategoryAndPriceBetween(@Param("category") Category category,
                                               @Param("minPrice") BigDecimal minPrice,
                                               @Param("maxPrice") BigDecimal maxPrice,
                                               Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
     List<Product> findTop8ByOrderByCreatedAtDesc();
     
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.stockQuantity > 0")
     Page<Product> findAvailableProducts(Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id FROM Product p WHERE p.stockQuantity > 0 ORDER BY p.id")
+    List<Long> findAvailableIds();
+
+    // Id, category id, price and stock, keyset-paged by id, for building the facet index
+    @Query("SELECT p.id, c.id, p.price, p.stockQuantity FROM Product p LEFT JOIN p.category c " +
+           "WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findFacetRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Id, name and description, keyset-paged by id, for building the search index
+    @Query("SELECT p.id, p.name, p.description FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Re-reads products after decrementStock, whose bulk UPDATE leaves loaded entities stale
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdInOrderById(Collection<Long> ids);
+
+    // Conditional decrement: the row is only touched while enough stock remains, so
+    // concurrent checkouts can never push stockQuantity below zero. The persistence context
+    // is cleared afterwards, so no entity keeps the old quantity to flush back over it.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,352 @@
+package com.ecommerce.backend.search;
+
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over product category, price bucket and stock for faceted filtering.
+ * Every product gets a dense position; each category, price bucket and the in-stock flag
+ * is a {@link BitSet} over those positions, so a filter is a few word-wise ANDs and a
+ * facet count is the cardinality of one more. Counts for a facet ignore that facet's own
+ * selection, so selecting a category still shows how many products the other categories
+ * would match.
+ *
+ * Positions are assigned in id order at rebuild and appended for new products; deleted
+ * products only clear their bits until the next rebuild. A rebuild reads the catalog into
+ * new bitmaps without holding the lock, so filters keep running on the old ones; products
+ * indexed or removed meanwhile are replayed onto the new bitmaps when they are swapped in.
+ */
+@Component
+public class ProductFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 10000;
+    private static final long NO_CATEGORY = -1;
+    // Lower bounds of the price buckets in cents; the last bucket is open-ended
+    private static final long[] PRICE_BUCKET_LOWER_CENTS = {0, 2500, 5000, 10000, 25000, 50000, 100000};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Both guarded by lock
+    private Bitmaps bitmaps = new Bitmaps(16);
+    // Products indexed (or removed, null) while a rebuild runs, replayed onto its result
+    private Map<Long, Row> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bitmaps rebuilt = new Bitmaps(REBUILD_BATCH_SIZE);
+        try {
+            long afterId = Long.MIN_VALUE;
+            while (true) {
+                List<Object[]> rows = productRepository.findFacetRows(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    rebuilt.index(new Row(afterId, (Long) row[1], (BigDecimal) row[2], (Integer) row[3]));
+                }
+                if (rows.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((id, row) -> {
+                if (row != null) {
+                    rebuilt.index(row);
+                } else {
+                    rebuilt.remove(id);
+                }
+            });
+            changedDuringRebuild = null;
+            bitmaps = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Built facet index for {} products ({} categories) in {} ms",
+                rebuilt.size, rebuilt.byCategory.size(), System.currentTimeMillis() - start);
+    }
+
+    public void index(Product product) {
+        Row row = new Row(product.getId(), product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getPrice(), product.getStockQuantity());
+        lock.writeLock().lock();
+        try {
+            bitmaps.index(row);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(row.id(), row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.remove(productId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static List<BigDecimal> priceBucketLowerBounds() {
+        List<BigDecimal> bounds = new ArrayList<>(PRICE_BUCKET_LOWER_CENTS.length);
+        for (long cents : PRICE_BUCKET_LOWER_CENTS) {
+            bounds.add(BigDecimal.valueOf(cents, 2));
+        }
+        return bounds;
+    }
+
+    /**
+     * Filters the catalog and counts facets.
+     *
+     * @param textMatches ids matching the text query, best first, or null for no text filter;
+     *                    results then follow this order instead of catalog order
+     * @param categoryIds categories to include (any of them), empty for all
+     * @param minPrice    inclusive lower price bound, or null
+     * @param maxPrice    inclusive upper price bound, or null
+     */
+    public Result filter(List<Long> textMatches, Collection<Long> categoryIds, BigDecimal minPrice,
+                         BigDecimal maxPrice, boolean inStockOnly, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Bitmaps index = bitmaps;
+            BitSet base = (BitSet) index.live.clone();
+            if (inStockOnly) {
+                base.and(index.inStock);
+            }
+            if (textMatches != null) {
+                base.and(index.positionsOf(textMatches));
+            }
+            BitSet categoryMask = null;
+            if (!categoryIds.isEmpty()) {
+                categoryMask = new BitSet();
+                for (Long categoryId : categoryIds) {
+                    BitSet members = index.byCategory.get(categoryId);
+                    if (members != null) {
+                        categoryMask.or(members);
+                    }
+                }
+            }
+            BitSet priceMask = minPrice != null || maxPrice != null ? index.priceRange(minPrice, maxPrice) : null;
+
+            BitSet withCategory = intersect(base, categoryMask);
+            BitSet withPrice = intersect(base, priceMask);
+            BitSet matches = intersect(withCategory, priceMask);
+
+            BitSet scratch = new BitSet();
+            Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+            for (Map.Entry<Long, BitSet> category : index.byCategory.entrySet()) {
+                int count = countIntersection(withPrice, category.getValue(), scratch);
+                if (count > 0) {
+                    categoryCounts.put(category.getKey(), count);
+                }
+            }
+            int[] priceBucketCounts = new int[index.byPriceBucket.length];
+            for (int i = 0; i < index.byPriceBucket.length; i++) {
+                priceBucketCounts[i] = countIntersection(withCategory, index.byPriceBucket[i], scratch);
+            }
+
+            return new Result(index.page(matches, textMatches, offset, limit), matches.cardinality(),
+                    categoryCounts, priceBucketCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static BitSet intersect(BitSet bits, BitSet mask) {
+        if (mask == null) {
+            return bits;
+        }
+        BitSet result = (BitSet) bits.clone();
+        result.and(mask);
+        return result;
+    }
+
+    private static int countIntersection(BitSet a, BitSet b, BitSet scratch) {
+        scratch.clear();
+        scratch.or(a);
+        scratch.and(b);
+        return scratch.cardinality();
+    }
+
+    private static int bucketOf(long cents) {
+        int bucket = Arrays.binarySearch(PRICE_BUCKET_LOWER_CENTS, cents);
+        return bucket >= 0 ? bucket : Math.max(0, -bucket - 2);
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    /** A page of matching product ids, the total match count and the facet counts. */
+    public record Result(List<Long> ids, int total, Map<Long, Integer> categoryCounts, int[] priceBucketCounts) {
+    }
+
+    private record Row(Long id, Long categoryId, BigDecimal price, Integer stockQuantity) {
+    }
+
+    // One complete index: the position arrays and the bitmaps over them
+    private static final class Bitmaps {
+        private final Map<Long, Integer> positions = new HashMap<>();
+        private long[] ids;
+        private long[] categories;
+        // -1 for products without a price
+        private long[] prices;
+        private int size;
+        private final BitSet live = new BitSet();
+        private final BitSet inStock = new BitSet();
+        private final Map<Long, BitSet> byCategory = new HashMap<>();
+        private final BitSet[] byPriceBucket = new BitSet[PRICE_BUCKET_LOWER_CENTS.length];
+
+        private Bitmaps(int capacity) {
+            ids = new long[capacity];
+            categories = new long[capacity];
+            prices = new long[capacity];
+            Arrays.setAll(byPriceBucket, i -> new BitSet());
+        }
+
+        private void index(Row row) {
+            Integer position = positions.get(row.id());
+            int target = position != null ? position : append(row.id());
+            clear(target);
+            set(target, row.categoryId(), row.price(), row.stockQuantity());
+        }
+
+        private void remove(Long productId) {
+            Integer position = positions.remove(productId);
+            if (position != null) {
+                clear(position);
+            }
+        }
+
+        private List<Long> page(BitSet matches, List<Long> textMatches, long offset, int limit) {
+            List<Long> page = new ArrayList<>(limit);
+            long skipped = 0;
+            if (textMatches != null) {
+                for (Long id : textMatches) {
+                    Integer position = positions.get(id);
+                    if (position != null && matches.get(position) && skipped++ >= offset) {
+                        page.add(id);
+                        if (page.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                return page;
+            }
+            for (int position = matches.nextSetBit(0); position >= 0 && page.size() < limit;
+                 position = matches.nextSetBit(position + 1)) {
+                if (skipped++ >= offset) {
+                    page.add(ids[position]);
+                }
+            }
+            return page;
+        }
+
+        private BitSet positionsOf(List<Long> productIds) {
+            BitSet bits = new BitSet(size);
+            for (Long id : productIds) {
+                Integer position = positions.get(id);
+                if (position != null) {
+                    bits.set(position);
+                }
+            }
+            return bits;
+        }
+
+        private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+            long min = minPrice != null ? toCents(minPrice) : Long.MIN_VALUE;
+            long max = maxPrice != null ? toCents(maxPrice) : Long.MAX_VALUE;
+            BitSet bits = new BitSet(size);
+            for (int position = live.nextSetBit(0); position >= 0; position = live.nextSetBit(position + 1)) {
+                long price = prices[position];
+                if (price >= 0 && price >= min && price <= max) {
+                    bits.set(position);
+                }
+            }
+            return bits;
+        }
+
+        private int append(long productId) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            positions.put(productId, size);
+            ids[size] = productId;
+            return size++;
+        }
+
+        private void set(int position, Long categoryId, BigDecimal price, Integer stockQuantity) {
+            live.set(position);
+            categories[position] = categoryId != null ? categoryId : NO_CATEGORY;
+            if (categoryId != null) {
+                byCategory.computeIfAbsent(categoryId, id -> new BitSet()).set(position);
+            }
+            prices[position] = price != null ? toCents(price) : -1;
+            if (price != null) {
+                byPriceBucket[bucketOf(prices[position])].set(position);
+            }
+            if (stockQuantity != null && stockQuantity > 0) {
+                inStock.set(position);
+            }
+        }
+
+        private void clear(int position) {
+            live.clear(position);
+            inStock.clear(position);
+            BitSet category = byCategory.get(categories[position]);
+            if (category != null) {
+                category.clear(position);
+            }
+            if (prices[position] >= 0) {
+                byPriceBucket[bucketOf(prices[position])].clear(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.ecommerce.backend.search;
+
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product names and descriptions. Terms are kept in a sorted map
+ * so that every query token is matched as a word prefix; hits are ranked by a weighted
+ * term score (name over description, exact term over prefix).
+ *
+ * A rebuild reads the catalog in id order into new maps without holding the lock, so
+ * searches keep running on the old index; products indexed or removed meanwhile are
+ * replayed onto the new maps when they are swapped in.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_PENALTY = 0.5f;
+    // Higher score first, then lower id
+    private static final Comparator<Map.Entry<Long, Float>> RANK = Comparator
+            .comparing((Map.Entry<Long, Float> entry) -> entry.getValue(), Comparator.reverseOrder())
+            .thenComparing(Map.Entry::getKey);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // All guarded by lock. postings: term -> (product id -> term weight); documentTerms:
+    // product id -> indexed terms, used to unindex a product before re-indexing it
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private Map<Long, List<String>> documentTerms = new HashMap<>();
+    // Products indexed (or removed, null) while a rebuild runs, replayed onto its result
+    private Map<Long, Document> changedDuringRebuild;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+        Map<Long, List<String>> newDocumentTerms = new HashMap<>();
+        try {
+            long afterId = Long.MIN_VALUE;
+            while (true) {
+                List<Object[]> rows = productRepository.findSearchRows(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    addDocument(new Document(afterId, (String) row[1], (String) row[2]), newPostings, newDocumentTerms);
+                }
+                if (rows.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((id, document) -> {
+                removeDocument(id, newPostings, newDocumentTerms);
+                if (document != null) {
+                    addDocument(document, newPostings, newDocumentTerms);
+                }
+            });
+            changedDuringRebuild = null;
+            postings = newPostings;
+            documentTerms = newDocumentTerms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} products ({} terms) in {} ms",
+                newDocumentTerms.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    public void index(Product product) {
+        Document document = new Document(product.getId(), product.getName(), product.getDescription());
+        lock.writeLock().lock();
+        try {
+            removeDocument(document.id(), postings, documentTerms);
+            addDocument(document, postings, documentTerms);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(document.id(), document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId, postings, documentTerms);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all products matching every token of the query, best match first.
+     * A query without any searchable token matches nothing.
+     */
+    public List<Long> search(String query) {
+        return search(query, Integer.MAX_VALUE).ids();
+    }
+
+    /**
+     * Returns the best {@code limit} matches of the query, best first, and how many
+     * products match in total. Only those matches are ranked, so a page near the start
+     * of a large result does not sort the whole result.
+     */
+    public Hits search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Hits(Collections.emptyList(), 0);
+        }
+
+        lock.readLock().lock();
+        Map<Long, Float> scores = null;
+        try {
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = matchPrefix(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return new Hits(Collections.emptyList(), 0);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Float>> ranked;
+        if (limit >= scores.size()) {
+            ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(RANK);
+        } else {
+            // Worst of the best so far on top, so each match costs at most one log(limit) swap
+            PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(limit + 1, RANK.reversed());
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                if (best.size() < limit) {
+                    best.add(entry);
+                } else if (RANK.compare(entry, best.peek()) < 0) {
+                    best.poll();
+                    best.add(entry);
+                }
+            }
+            ranked = new ArrayList<>(best);
+            ranked.sort(RANK);
+        }
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Float> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return new Hits(ids, scores.size());
+    }
+
+    /** The best matches, best first, and the number of products matching in total. */
+    public record Hits(List<Long> ids, int total) {
+    }
+
+    private Map<Long, Float> matchPrefix(String token) {
+        Map<Long, Float> matches = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> term
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            float factor = term.getKey().length() == token.length() ? 1.0f : PREFIX_PENALTY;
+            for (Map.Entry<Long, Float> posting : term.getValue().entrySet()) {
+                matches.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+            }
+        }
+        return matches;
+    }
+
+    private static void addDocument(Document document, NavigableMap<String, Map<Long, Float>> postings,
+                                    Map<Long, List<String>> documentTerms) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(document.name())) {
+            weights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(document.description())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        for (Map.Entry<String, Float> weight : weights.entrySet()) {
+            postings.computeIfAbsent(weight.getKey(), k -> new HashMap<>())
+                    .put(document.id(), weight.getValue());
+        }
+        documentTerms.put(document.id(), new ArrayList<>(weights.keySet()));
+    }
+
+    private static void removeDocument(Long productId, NavigableMap<String, Map<Long, Float>> postings,
+                                       Map<Long, List<String>> documentTerms) {
+        List<String> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private record Document(Long id, String name, String description) {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letterOrDigit = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
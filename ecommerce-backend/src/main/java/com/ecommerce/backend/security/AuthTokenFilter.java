@@ -1,5 +1,7 @@
 package com.ecommerce.backend.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -31,10 +39,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            JwtUtils.VerifiedToken token = jwt != null ? validate(jwt) : null;
+            if (token != null) {
+                String username = token.subject();
+                // Tokens issued before jti was added are keyed by the token itself.
+                String tokenId = token.id() != null ? token.id() : jwt;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = userPrincipalCache.get(username, tokenId,
+                        () -> userDetailsService.loadUserByUsername(username));
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -48,6 +60,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private JwtUtils.VerifiedToken validate(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        JwtUtils.VerifiedToken token = jwtUtils.parseValidatedToken(jwt);
+        sample.stop(Timer.builder("jwt.validation")
+                .description("Time to verify a bearer token and read its claims")
+                .tag("outcome", token != null ? "valid" : "invalid")
+                .register(meterRegistry));
+        return token;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,74 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.service.LoginThrottledException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small fixed pool for password verification. BCrypt is deliberately CPU-bound, so a burst
+ * of sign-ins run on request threads would occupy every core and starve catalog traffic.
+ * Here at most {@code threads} hashes run at once and at most {@code queue-capacity} wait;
+ * beyond that sign-ins are refused instead of queued without bound.
+ */
+@Component
+public class CredentialCheckExecutor {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 = half the available processors, at least one
+    @Value("${security.credential-check.threads:0}")
+    private int threads;
+
+    @Value("${security.credential-check.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "credential-check-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("auth.credential.check.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Sign-ins waiting for a password check")
+                .register(meterRegistry);
+        Gauge.builder("auth.credential.check.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks in progress")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws LoginThrottledException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> check) {
+        try {
+            return CompletableFuture.supplyAsync(check, executor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.login.throttled", "reason", "busy").increment();
+            throw new LoginThrottledException("Too many sign-ins in progress, retry later", 1);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.backend.security;
 
+import com.ecommerce.backend.cache.BoundedTtlCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,7 +13,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
@@ -22,30 +27,63 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    @Value("${jwt.verified-cache.ttl-ms:300000}")
+    private long verifiedCacheTtlMs;
+
+    private Key key;
+    private JwtParser parser;
+    // Keyed by the complete compact token, never by the signature alone: a hit must mean
+    // these exact header and payload bytes were verified before. Values are immutable
+    // projections, as one entry is shared by every request carrying the token.
+    private BoundedTtlCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifiedTokens = new BoundedTtlCache<>(verifiedCacheMaxSize, verifiedCacheTtlMs);
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
+    /**
+     * Verifies the token once and returns what it asserts, or null if it is invalid or expired.
+     * Recently verified tokens are served from cache until the earlier of the cache TTL
+     * and the token's own expiration.
+     */
+    public VerifiedToken parseValidatedToken(String authToken) {
+        VerifiedToken cached = verifiedTokens.get(authToken);
+        if (cached != null) {
+            if (cached.expiresAt() == null || cached.expiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(authToken);
+        }
 
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            VerifiedToken token = VerifiedToken.from(parser.parseClaimsJws(authToken).getBody());
+            long ttl = token.expiresAt() != null
+                    ? token.expiresAt().toEpochMilli() - System.currentTimeMillis()
+                    : verifiedCacheTtlMs;
+            if (ttl > 0) {
+                verifiedTokens.put(authToken, token, ttl);
+            }
+            return token;
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -56,6 +94,22 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseValidatedToken(authToken) != null;
+    }
+
+    /**
+     * The claims of a verified token that authentication reads.
+     *
+     * @param id the jti, or null for tokens issued before it was added
+     */
+    public record VerifiedToken(String subject, String id, Instant expiresAt) {
+        static VerifiedToken from(Claims claims) {
+            return new VerifiedToken(claims.getSubject(), claims.getId(),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        }
     }
-}
\ No newline at end of file
+}
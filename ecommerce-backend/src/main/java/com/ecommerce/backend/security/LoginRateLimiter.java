@@ -0,0 +1,82 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.cache.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets for sign-in attempts, one per client address and one per username. An
+ * attempt takes a token from both, so a single client cannot spray many accounts and many
+ * clients cannot hammer one account. Buckets live in a bounded LRU cache; one that expires
+ * or is evicted would have refilled anyway, or is simply started full again.
+ */
+@Component
+public class LoginRateLimiter {
+    private final BoundedTtlCache<String, TokenBucket> clientBuckets;
+    private final BoundedTtlCache<String, TokenBucket> usernameBuckets;
+    private final int clientCapacity;
+    private final double clientRefillPerMilli;
+    private final int usernameCapacity;
+    private final double usernameRefillPerMilli;
+
+    public LoginRateLimiter(@Value("${security.login-rate-limit.client.capacity:30}") int clientCapacity,
+                            @Value("${security.login-rate-limit.client.per-minute:60}") int clientPerMinute,
+                            @Value("${security.login-rate-limit.username.capacity:10}") int usernameCapacity,
+                            @Value("${security.login-rate-limit.username.per-minute:10}") int usernamePerMinute,
+                            @Value("${security.login-rate-limit.max-tracked:100000}") int maxTracked) {
+        this.clientCapacity = clientCapacity;
+        this.clientRefillPerMilli = clientPerMinute / 60_000.0;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerMilli = usernamePerMinute / 60_000.0;
+        this.clientBuckets = new BoundedTtlCache<>(maxTracked, refillMillis(clientCapacity, clientRefillPerMilli));
+        this.usernameBuckets = new BoundedTtlCache<>(maxTracked, refillMillis(usernameCapacity, usernameRefillPerMilli));
+    }
+
+    /**
+     * Takes a token for this attempt.
+     *
+     * @return 0 if the attempt may proceed, otherwise the milliseconds until it could
+     */
+    public long tryAcquire(String username, String clientAddress) {
+        long now = System.currentTimeMillis();
+        TokenBucket client = clientBuckets.get(clientAddress,
+                key -> new TokenBucket(clientCapacity, clientRefillPerMilli, now));
+        long wait = client.tryTake(now);
+        if (wait > 0) {
+            return wait;
+        }
+        TokenBucket user = usernameBuckets.get(username,
+                key -> new TokenBucket(usernameCapacity, usernameRefillPerMilli, now));
+        return user.tryTake(now);
+    }
+
+    private static long refillMillis(int capacity, double refillPerMilli) {
+        return (long) Math.ceil(capacity / refillPerMilli);
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerMilli;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(int capacity, double refillPerMilli, long now) {
+            this.capacity = capacity;
+            this.refillPerMilli = refillPerMilli;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        synchronized long tryTake(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerMilli);
+                refilledAt = now;
+            }
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerMilli);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.cache.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caches the principals resolved by {@link AuthTokenFilter} per username and token id, so
+ * repeated requests with the same JWT do not reload the user from the database.
+ */
+@Component
+public class UserPrincipalCache {
+    private final BoundedTtlCache<Key, UserDetails> cache;
+
+    public UserPrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${security.principal-cache.ttl-ms:300000}") long ttlMillis) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
+
+    public UserDetails get(String username, String tokenId, Supplier<UserDetails> loader) {
+        return cache.get(new Key(username, tokenId), key -> loader.get());
+    }
+
+    public void evictUser(String username) {
+        cache.invalidateIf(key -> key.username.equals(username));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class Key {
+        private final String username;
+        private final String tokenId;
+
+        private Key(String username, String tokenId) {
+            this.username = username;
+            this.tokenId = tokenId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return username.equals(other.username) && tokenId.equals(other.tokenId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, tokenId);
+        }
+    }
+}
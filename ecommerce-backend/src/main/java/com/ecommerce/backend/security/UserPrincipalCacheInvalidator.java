@@ -0,0 +1,38 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User}: any update (role, password, ...) or removal drops the
+ * cached principals for that username.
+ *
+ * The callbacks run when the change is flushed, before it commits, so a request in between
+ * could still load and cache the old row. The principals are therefore dropped again once
+ * the transaction commits.
+ */
+@Component
+public class UserPrincipalCacheInvalidator {
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getUsername();
+        userPrincipalCache.evictUser(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userPrincipalCache.evictUser(username);
+                }
+            });
+        }
+    }
+}
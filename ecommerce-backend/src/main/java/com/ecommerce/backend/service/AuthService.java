@@ -1,11 +1,11 @@
 package com.ecommerce.backend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,9 +14,14 @@ import com.ecommerce.backend.dto.LoginRequest;
 import com.ecommerce.backend.dto.SignupRequest;
 import com.ecommerce.backend.entity.User;
 import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.security.CredentialCheckExecutor;
 import com.ecommerce.backend.security.JwtUtils;
+import com.ecommerce.backend.security.LoginRateLimiter;
 import com.ecommerce.backend.security.UserPrincipal;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class AuthService {
     @Autowired
@@ -31,29 +36,49 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
-public ResponseEntity<?> authenticateUser(LoginRequest loginRequest) {
-    Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    @Autowired
+    LoginRateLimiter loginRateLimiter;
 
-    SecurityContextHolder.getContext().setAuthentication(authentication);
-    String jwt = jwtUtils.generateJwtToken(authentication);
+    @Autowired
+    CredentialCheckExecutor credentialCheckExecutor;
 
-    UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * Checks the credentials on {@link CredentialCheckExecutor} and completes with the JWT
+     * response; a failed check completes exceptionally with the AuthenticationException.
+     *
+     * @throws LoginThrottledException if the caller exceeded its sign-in rate or the pool is full
+     */
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(LoginRequest loginRequest, String clientAddress) {
+        long waitMillis = loginRateLimiter.tryAcquire(loginRequest.getUsername(), clientAddress);
+        if (waitMillis > 0) {
+            meterRegistry.counter("auth.login.throttled", "reason", "rate_limit").increment();
+            throw new LoginThrottledException("Too many sign-in attempts, retry later",
+                    TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+        }
+        return credentialCheckExecutor.submit(() -> signIn(loginRequest));
+    }
 
+    private ResponseEntity<?> signIn(LoginRequest loginRequest) {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-    User user = userRepository.findByUsername(userDetails.getUsername())
-            .orElseThrow(() -> new RuntimeException("User not found after authentication"));
+        String jwt = jwtUtils.generateJwtToken(authentication);
 
+        // The principal was loaded for the password check and already carries the profile fields
+        UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
 
-    return ResponseEntity.ok(new JwtResponse(jwt,
-            userDetails.getId(),
-            userDetails.getUsername(),
-            userDetails.getEmail(),
-            userDetails.getAuthorities().iterator().next().getAuthority(),
-            user.getFirstName(),
-            user.getLastName()
-    ));
-}
+        return ResponseEntity.ok(new JwtResponse(jwt,
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getEmail(),
+                userDetails.getAuthorities().iterator().next().getAuthority(),
+                userDetails.getFirstName(),
+                userDetails.getLastName()
+        ));
+    }
 
     public ResponseEntity<?> registerUser(SignupRequest signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
@@ -0,0 +1,187 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.cache.CatalogCache;
+import com.ecommerce.backend.cart.Cart;
+import com.ecommerce.backend.cart.CartStore;
+import com.ecommerce.backend.dto.CartResponse;
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.dto.ProductResponse;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side carts. Every view revalidates all lines against the catalog in one go:
+ * products are read from {@link CatalogCache} and the ones not cached are loaded with a
+ * single query. Checkout turns the cart into an order through
+ * {@link OrderService#createOrder}, which re-checks price and stock in the database.
+ */
+@Service
+public class CartService {
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${cart.max-lines:500}")
+    private int maxLines;
+
+    @Value("${cart.max-quantity:999}")
+    private int maxQuantity;
+
+    public CartResponse getCart(String username) {
+        return view(cartStore.find(username).map(Cart::lines).orElse(List.of()));
+    }
+
+    /** Adds to the quantity already in the cart. */
+    public CartResponse addItem(String username, Long productId, Integer quantity) {
+        requireQuantity(quantity, 1);
+        ProductResponse product = loadProduct(productId);
+        Cart cart = cartStore.getOrCreate(username);
+        synchronized (cart) {
+            int current = cart.getQuantity(productId);
+            requireRoomFor(cart, current);
+            requireQuantity(current + quantity, 1);
+            cart.set(productId, current + quantity, toCents(product.price()));
+        }
+        return view(cart.lines());
+    }
+
+    /** Replaces a line's quantity; zero removes the line. */
+    public CartResponse updateItem(String username, Long productId, Integer quantity) {
+        requireQuantity(quantity, 0);
+        if (quantity == 0) {
+            return removeItem(username, productId);
+        }
+        ProductResponse product = loadProduct(productId);
+        Cart cart = cartStore.getOrCreate(username);
+        synchronized (cart) {
+            requireRoomFor(cart, cart.getQuantity(productId));
+            cart.set(productId, quantity, toCents(product.price()));
+        }
+        return view(cart.lines());
+    }
+
+    public CartResponse removeItem(String username, Long productId) {
+        return cartStore.find(username).map(cart -> {
+            cart.set(productId, 0, 0);
+            return view(cart.lines());
+        }).orElseGet(() -> view(List.of()));
+    }
+
+    public void clear(String username) {
+        cartStore.remove(username);
+    }
+
+    /**
+     * Places an order for everything in the cart and takes the ordered lines out of it.
+     * If the order fails (for example on stock) the cart is left unchanged. Only one
+     * checkout of a cart runs at a time, so a double submit cannot order the lines twice.
+     */
+    public OrderResponse checkout(String username, String shippingAddress) {
+        Cart cart = cartStore.find(username).orElse(null);
+        if (cart == null || cart.size() == 0) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+        if (!cart.beginCheckout()) {
+            throw new IllegalStateException("A checkout of this cart is already in progress");
+        }
+        try {
+            List<Cart.Line> lines = cart.lines();
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException("Cart is empty");
+            }
+            List<OrderRequest.OrderItemRequest> items = new ArrayList<>(lines.size());
+            for (Cart.Line line : lines) {
+                items.add(new OrderRequest.OrderItemRequest(line.productId(), line.quantity()));
+            }
+            OrderRequest request = new OrderRequest();
+            request.setItems(items);
+            request.setShippingAddress(shippingAddress);
+
+            OrderResponse order = orderService.createOrder(request, username);
+            cart.subtract(lines);
+            return order;
+        } finally {
+            cart.endCheckout();
+        }
+    }
+
+    private CartResponse view(List<Cart.Line> lines) {
+        List<Long> ids = new ArrayList<>(lines.size());
+        for (Cart.Line line : lines) {
+            ids.add(line.productId());
+        }
+        Map<Long, ProductResponse> products = lines.isEmpty() ? Map.of() : catalogCache.getProducts(ids,
+                missing -> productRepository.findAllById(missing).stream().map(ProductResponse::from).toList());
+
+        List<CartResponse.Line> items = new ArrayList<>(lines.size());
+        int totalQuantity = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        boolean checkoutReady = !lines.isEmpty();
+        for (Cart.Line line : lines) {
+            ProductResponse product = products.get(line.productId());
+            totalQuantity += line.quantity();
+            if (product == null || product.price() == null) {
+                items.add(new CartResponse.Line(line.productId(), product != null ? product.name() : null, null,
+                        null, line.quantity(), null, null, false, false));
+                checkoutReady = false;
+                continue;
+            }
+            boolean available = product.stockQuantity() != null && product.stockQuantity() >= line.quantity();
+            BigDecimal lineTotal = product.price().multiply(BigDecimal.valueOf(line.quantity()));
+            if (available) {
+                total = total.add(lineTotal);
+            } else {
+                checkoutReady = false;
+            }
+            items.add(new CartResponse.Line(product.id(), product.name(), product.imageUrl(), product.price(),
+                    line.quantity(), lineTotal, product.stockQuantity(), available,
+                    toCents(product.price()) != line.priceCents()));
+        }
+        return new CartResponse(items, totalQuantity, total, checkoutReady);
+    }
+
+    private ProductResponse loadProduct(Long productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("A product id is required");
+        }
+        ProductResponse product = catalogCache.getProduct(productId,
+                id -> productRepository.findById(id).map(ProductResponse::from).orElse(null));
+        if (product == null || product.price() == null) {
+            throw new IllegalArgumentException("Product not found: " + productId);
+        }
+        return product;
+    }
+
+    private void requireQuantity(Integer quantity, int min) {
+        if (quantity == null || quantity < min || quantity > maxQuantity) {
+            throw new IllegalArgumentException("Quantity must be between " + min + " and " + maxQuantity);
+        }
+    }
+
+    private void requireRoomFor(Cart cart, int currentQuantity) {
+        if (currentQuantity == 0 && cart.size() >= maxLines) {
+            throw new IllegalArgumentException("A cart holds at most " + maxLines + " products");
+        }
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
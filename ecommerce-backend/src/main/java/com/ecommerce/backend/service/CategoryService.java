@@ -1,5 +1,8 @@
 package com.ecommerce.backend.service;
 
+import com.ecommerce.backend.cache.CatalogCache;
+import com.ecommerce.backend.cache.ProductFeeds;
+import com.ecommerce.backend.dto.CategoryResponse;
 import com.ecommerce.backend.entity.Category;
 import com.ecommerce.backend.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,20 +16,34 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductFeeds productFeeds;
+
+    public List<CategoryResponse> getAllCategories() {
+        return catalogCache.getAllCategories(() -> categoryRepository.findAll().stream()
+                .map(CategoryResponse::from)
+                .toList());
     }
 
-    public Optional<Category> getCategoryById(Long id) {
-        return categoryRepository.findById(id);
+    public Optional<CategoryResponse> getCategoryById(Long id) {
+        return Optional.ofNullable(catalogCache.getCategory(id,
+                key -> categoryRepository.findById(key).map(CategoryResponse::from).orElse(null)));
     }
 
     public Category saveCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        catalogCache.evictCategories();
+        productFeeds.categoriesChanged();
+        return saved;
     }
 
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        catalogCache.evictCategories();
+        productFeeds.categoriesChanged();
     }
 
     public Optional<Category> getCategoryByName(String name) {
@@ -0,0 +1,104 @@
+package com.ecommerce.backend.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for comma separated values (RFC 4180): fields may be double-quoted, and
+ * quoted fields may contain commas, line breaks and doubled quotes. Reads through its own
+ * buffer, so only the current record is held in memory.
+ */
+final class CsvReader {
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private int pushedBack = -2;
+    private long line = 1;
+    private long recordLine;
+    private final StringBuilder field = new StringBuilder();
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** The line the record last returned by {@link #read()} starts on. */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    List<String> read() throws IOException {
+        int c = next();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (c == '"' && !quoted && field.isEmpty()) {
+                quoted = true;
+                while (true) {
+                    c = next();
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    if (c == '"') {
+                        c = next();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r') {
+                c = next();
+                if (c != '\n') {
+                    pushedBack = c;
+                    c = '\n';
+                }
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = next();
+        }
+    }
+
+    private int next() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
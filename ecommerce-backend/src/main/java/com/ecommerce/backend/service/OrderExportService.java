@@ -0,0 +1,133 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.OrderExportRecord;
+import com.ecommerce.backend.dto.OrderExportRow;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams every order with its items to a writer, including orders that have no items.
+ * Rows are read as projections through a forward-only cursor and only the current order
+ * is held, so heap usage does not grow with the size of the orders table.
+ */
+@Service
+public class OrderExportService {
+    private static final String CSV_HEADER = "order_id,user_id,username,status,total_amount,shipping_address," +
+            "created_at,product_id,product_name,quantity,price";
+
+    public enum Format { NDJSON, CSV }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @return the number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(Format format, Writer writer) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long ordersWritten = 0;
+        OrderExportRecord header = null;
+        List<OrderExportRecord.Item> items = new ArrayList<>();
+
+        try (Stream<OrderExportRow> rows = orderRepository.streamAllForExport()) {
+            Iterator<OrderExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderExportRow row = iterator.next();
+                if (header == null || !header.id().equals(row.orderId())) {
+                    if (header != null) {
+                        write(format, withItems(header, items), writer);
+                        ordersWritten++;
+                        items = new ArrayList<>();
+                    }
+                    header = new OrderExportRecord(row.orderId(), row.userId(), row.username(), row.status(),
+                            row.totalAmount(), row.shippingAddress(), row.createdAt(), null);
+                }
+                if (row.quantity() != null) {
+                    items.add(new OrderExportRecord.Item(row.productId(), row.productName(),
+                            row.quantity(), row.price()));
+                }
+            }
+        }
+        if (header != null) {
+            write(format, withItems(header, items), writer);
+            ordersWritten++;
+        }
+        writer.flush();
+        return ordersWritten;
+    }
+
+    private static OrderExportRecord withItems(OrderExportRecord header, List<OrderExportRecord.Item> items) {
+        return new OrderExportRecord(header.id(), header.userId(), header.username(), header.status(),
+                header.totalAmount(), header.shippingAddress(), header.createdAt(), items);
+    }
+
+    private void write(Format format, OrderExportRecord order, Writer writer) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+            return;
+        }
+        if (order.items().isEmpty()) {
+            // Still one line per order, with the item columns left empty
+            writeOrderColumns(order, writer);
+            writer.write(",,,,\n");
+            return;
+        }
+        for (OrderExportRecord.Item item : order.items()) {
+            writeOrderColumns(order, writer);
+            writer.write(',');
+            writer.write(String.valueOf(item.productId()));
+            writer.write(',');
+            writer.write(csv(item.productName()));
+            writer.write(',');
+            writer.write(String.valueOf(item.quantity()));
+            writer.write(',');
+            writer.write(String.valueOf(item.price()));
+            writer.write('\n');
+        }
+    }
+
+    private static void writeOrderColumns(OrderExportRecord order, Writer writer) throws IOException {
+        writer.write(String.valueOf(order.id()));
+        writer.write(',');
+        writer.write(String.valueOf(order.userId()));
+        writer.write(',');
+        writer.write(csv(order.username()));
+        writer.write(',');
+        writer.write(String.valueOf(order.status()));
+        writer.write(',');
+        writer.write(String.valueOf(order.totalAmount()));
+        writer.write(',');
+        writer.write(csv(order.shippingAddress()));
+        writer.write(',');
+        writer.write(String.valueOf(order.createdAt()));
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,21 +1,30 @@
 package com.ecommerce.backend.service;
 
+import com.ecommerce.backend.dto.CursorPage;
 import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
 import com.ecommerce.backend.entity.Order;
 import com.ecommerce.backend.entity.OrderItem;
 import com.ecommerce.backend.entity.Product;
 import com.ecommerce.backend.entity.User;
+import com.ecommerce.backend.pagination.KeysetCursor;
 import com.ecommerce.backend.repository.OrderRepository;
-import com.ecommerce.backend.repository.ProductRepository;
 import com.ecommerce.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,19 +33,65 @@ public class OrderService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private StockReservationService stockReservationService;
 
     @Transactional
-    public Order createOrder(OrderRequest orderRequest, String username) {
+    public OrderResponse createOrder(OrderRequest orderRequest, String username) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (!userOpt.isPresent()) {
             throw new RuntimeException("User not found");
         }
 
-        User user = userOpt.get();
+        Map<Long, Product> products = stockReservationService.reserve(orderRequest.getItems());
+        return OrderResponse.from(orderRepository.save(buildOrder(userOpt.get(), orderRequest, products)));
+    }
+
+    /**
+     * Places several orders in one transaction, reserving their stock together with
+     * {@link StockReservationService#reserveAll}. An order whose user or stock is missing
+     * fails on its own; a concurrent stock conflict throws StockReservationException and
+     * rolls back the whole batch.
+     *
+     * @return one result per request, in the same order
+     */
+    @Transactional
+    public List<PlacementResult> createOrders(List<OrderRequest> orderRequests, List<String> usernames) {
+        Map<String, Optional<User>> users = new HashMap<>();
+        List<List<OrderRequest.OrderItemRequest>> items = new ArrayList<>(orderRequests.size());
+        for (int i = 0; i < orderRequests.size(); i++) {
+            // Orders of unknown users reserve nothing
+            boolean known = users.computeIfAbsent(usernames.get(i), userRepository::findByUsername).isPresent();
+            items.add(known ? orderRequests.get(i).getItems() : List.of());
+        }
+        List<StockReservationService.Reservation> reservations = stockReservationService.reserveAll(items);
+
+        List<PlacementResult> results = new ArrayList<>(orderRequests.size());
+        List<Order> orders = new ArrayList<>();
+        List<Integer> orderIndexes = new ArrayList<>();
+        for (int i = 0; i < orderRequests.size(); i++) {
+            Optional<User> user = users.get(usernames.get(i));
+            StockReservationService.Reservation reservation = reservations.get(i);
+            if (!user.isPresent()) {
+                results.add(PlacementResult.failed("User not found"));
+            } else if (reservation.failure() != null) {
+                results.add(PlacementResult.failed(reservation.failure().getMessage()));
+            } else {
+                orders.add(buildOrder(user.get(), orderRequests.get(i), reservation.products()));
+                orderIndexes.add(i);
+                results.add(null);
+            }
+        }
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int i = 0; i < saved.size(); i++) {
+            results.set(orderIndexes.get(i), PlacementResult.placed(OrderResponse.from(saved.get(i))));
+        }
+        return results;
+    }
+
+    private Order buildOrder(User user, OrderRequest orderRequest, Map<Long, Product> products) {
         Order order = new Order();
         order.setUser(user);
         order.setShippingAddress(orderRequest.getShippingAddress());
@@ -44,16 +99,7 @@ public class OrderService {
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (OrderRequest.OrderItemRequest itemRequest : orderRequest.getItems()) {
-            Optional<Product> productOpt = productRepository.findById(itemRequest.getProductId());
-            if (!productOpt.isPresent()) {
-                throw new RuntimeException("Product not found: " + itemRequest.getProductId());
-            }
-
-            Product product = productOpt.get();
-            
-            if (product.getStockQuantity() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
+            Product product = products.get(itemRequest.getProductId());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -63,29 +109,67 @@ public class OrderService {
 
             order.getOrderItems().add(orderItem);
             totalAmount = totalAmount.add(orderItem.getSubtotal());
-
-            // Update stock
-            product.setStockQuantity(product.getStockQuantity() - itemRequest.getQuantity());
-            productRepository.save(product);
         }
 
         order.setTotalAmount(totalAmount);
-        return orderRepository.save(order);
+        return order;
     }
 
-    public Page<Order> getUserOrders(String username, Pageable pageable) {
+    // Order history pages are loaded in two phases, a page of ids and then those orders with
+    // their items, products and categories, so the statement count does not grow with the page.
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getUserOrders(String username, Pageable pageable) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (!userOpt.isPresent()) {
             throw new RuntimeException("User not found");
         }
-        return orderRepository.findByUser(userOpt.get(), pageable);
+        Page<Long> ids = orderRepository.findIdsByUser(userOpt.get(), pageable);
+        List<OrderResponse> orders = toResponses(ids.getContent());
+        return new PageImpl<>(orders, pageable, ids.getTotalElements());
     }
 
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponse> scrollUserOrders(String username, String cursor, int size) {
+        Optional<User> userOpt = userRepository.findByUsername(username);
+        if (!userOpt.isPresent()) {
+            throw new RuntimeException("User not found");
+        }
+        User user = userOpt.get();
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, sort, Order.class);
+        Specification<Order> byUser = (root, query, cb) -> cb.equal(root.get("user"), user);
+        List<Order> rows = orderRepository.findBy(byUser.and(KeysetCursor.seek(position, sort)),
+                query -> query.limit(size + 1).all());
+        if (!rows.isEmpty()) {
+            // Initializes the slice's items, products and categories in the persistence context
+            orderRepository.findWithItemsByIdIn(
+                    rows.stream().limit(size).map(Order::getId).toList());
+        }
+        return KeysetCursor.toCursorPage(rows, size, sort, OrderResponse::from);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> getOrderById(Long id) {
+        return orderRepository.findById(id).map(OrderResponse::from);
+    }
+
+    private List<OrderResponse> toResponses(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : orderRepository.findWithItemsByIdIn(ids)) {
+            byId.put(order.getId(), order);
+        }
+        List<OrderResponse> responses = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            responses.add(OrderResponse.from(byId.get(id)));
+        }
+        return responses;
     }
 
-    public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
+    @Transactional
+    public OrderResponse updateOrderStatus(Long orderId, Order.OrderStatus status) {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (!orderOpt.isPresent()) {
             throw new RuntimeException("Order not found");
@@ -93,10 +177,17 @@ public class OrderService {
 
         Order order = orderOpt.get();
         order.setStatus(status);
-        return orderRepository.save(order);
+        return OrderResponse.from(orderRepository.save(order));
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    /** The created order, or why it could not be placed. */
+    public record PlacementResult(OrderResponse order, String error) {
+        static PlacementResult placed(OrderResponse order) {
+            return new PlacementResult(order, null);
+        }
+
+        static PlacementResult failed(String error) {
+            return new PlacementResult(null, error);
+        }
     }
-}
\ No newline at end of file
+}
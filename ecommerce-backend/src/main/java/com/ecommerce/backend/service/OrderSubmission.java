@@ -0,0 +1,55 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
+
+/**
+ * An order accepted by {@link OrderSubmissionService} and identified to the client by
+ * {@link #getId()}. Workers publish the outcome through the volatile fields, which
+ * request threads read when the client polls.
+ */
+public class OrderSubmission {
+    public enum Status {
+        QUEUED, COMPLETED, FAILED
+    }
+
+    private final String id;
+    // The user and idempotency key the submission is deduplicated on
+    private final String key;
+    private final String username;
+    private final OrderRequest request;
+    private volatile Status status = Status.QUEUED;
+    private volatile OrderResponse order;
+    private volatile String error;
+
+    OrderSubmission(String id, String key, String username, OrderRequest request) {
+        this.id = id;
+        this.key = key;
+        this.username = username;
+        this.request = request;
+    }
+
+    public String getId() { return id; }
+    public String getUsername() { return username; }
+    public OrderRequest getRequest() { return request; }
+    public Status getStatus() { return status; }
+    public OrderResponse getOrder() { return order; }
+    public String getError() { return error; }
+
+    String getKey() { return key; }
+
+    void complete(OrderResponse order) {
+        this.order = order;
+        finish(Status.COMPLETED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    // The status is written last so a reader that sees COMPLETED also sees the order
+    private void finish(Status status) {
+        this.status = status;
+    }
+}
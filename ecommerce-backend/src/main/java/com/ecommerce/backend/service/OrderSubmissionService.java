@@ -0,0 +1,218 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.cache.BoundedTtlCache;
+import com.ecommerce.backend.dto.OrderRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accept-then-process order placement. Submissions are deduplicated by the client's
+ * idempotency key (per user), queued in a bounded queue and placed by a small pool of
+ * workers. Each worker drains up to batch-size submissions and places them in one
+ * transaction through {@link OrderService#createOrders}, so stock for a hot product is
+ * decremented once per batch instead of once per order. If that batch loses a stock race
+ * to a concurrent checkout it is rolled back and retried one order at a time; any other
+ * failure fails the whole batch, since the orders may already have been committed.
+ *
+ * Idempotency keys and outcomes are kept in memory, so they do not survive a restart.
+ * Pending submissions are bounded by the queue; finished ones are kept for retention-ms,
+ * at most max-retained of them, and the least recently polled are dropped first.
+ */
+@Service
+public class OrderSubmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderSubmissionService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${orders.async.workers:2}")
+    private int workers;
+
+    @Value("${orders.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${orders.async.batch-size:50}")
+    private int batchSize;
+
+    @Value("${orders.async.retention-ms:86400000}")
+    private long retentionMillis;
+
+    @Value("${orders.async.max-retained:100000}")
+    private int maxRetained;
+
+    // Queued or being placed; never evicted, since a retry must not be placed again
+    private final Map<String, OrderSubmission> pendingByKey = new ConcurrentHashMap<>();
+    private final Map<String, OrderSubmission> pendingById = new ConcurrentHashMap<>();
+    private BoundedTtlCache<String, OrderSubmission> finishedByKey;
+    private BoundedTtlCache<String, OrderSubmission> finishedById;
+    // One permit per free queue slot, taken before a key is published so an accepted
+    // submission can always be queued
+    private Semaphore queueSlots;
+    private BlockingQueue<OrderSubmission> queue;
+    private ExecutorService workerPool;
+
+    @PostConstruct
+    public void start() {
+        finishedByKey = new BoundedTtlCache<>(maxRetained, retentionMillis);
+        finishedById = new BoundedTtlCache<>(maxRetained, retentionMillis);
+        queueSlots = new Semaphore(queueCapacity);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("orders.async.queue.size", queue, BlockingQueue::size)
+                .description("Order submissions waiting for a worker")
+                .register(meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Queues an order, or returns the existing submission if this user already sent the
+     * same idempotency key. A retry is never placed twice, even if its body differs.
+     *
+     * @throws OrderQueueFullException if the queue is full
+     */
+    public OrderSubmission submit(String username, String idempotencyKey, OrderRequest request) {
+        String key = key(username, idempotencyKey);
+        OrderSubmission existing = findByKey(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (!queueSlots.tryAcquire()) {
+            throw new OrderQueueFullException("Too many orders are waiting to be processed, retry later");
+        }
+        OrderSubmission submission = new OrderSubmission(UUID.randomUUID().toString(), key, username, request);
+        // By id first, so a retry handed this submission can already poll it
+        pendingById.put(submission.getId(), submission);
+        existing = pendingByKey.putIfAbsent(key, submission);
+        if (existing == null) {
+            // Finished between the lookup above and now: retire() publishes before it unpublishes
+            existing = finishedByKey.get(key);
+            if (existing != null) {
+                pendingByKey.remove(key, submission);
+            }
+        }
+        if (existing != null) {
+            pendingById.remove(submission.getId(), submission);
+            queueSlots.release();
+            return existing;
+        }
+        queue.add(submission);
+        return submission;
+    }
+
+    public Optional<OrderSubmission> find(String id, String username) {
+        OrderSubmission submission = pendingById.get(id);
+        if (submission == null) {
+            submission = finishedById.get(id);
+        }
+        return submission != null && submission.getUsername().equals(username)
+                ? Optional.of(submission) : Optional.empty();
+    }
+
+    private void work() {
+        List<OrderSubmission> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            queueSlots.release(batch.size());
+            try {
+                placeBatch(batch);
+            } catch (RuntimeException e) {
+                logger.error("Placing a batch of {} orders failed", batch.size(), e);
+                batch.stream().filter(submission -> submission.getStatus() == OrderSubmission.Status.QUEUED)
+                        .forEach(submission -> submission.fail("Order could not be processed"));
+            }
+            batch.forEach(this::retire);
+            batch.clear();
+        }
+    }
+
+    private void placeBatch(List<OrderSubmission> batch) {
+        List<OrderService.PlacementResult> results;
+        try {
+            results = orderService.createOrders(
+                    batch.stream().map(OrderSubmission::getRequest).toList(),
+                    batch.stream().map(OrderSubmission::getUsername).toList());
+        } catch (StockReservationException e) {
+            // A concurrent checkout took stock the batch had counted on. This is thrown before
+            // the batch commits, so nothing was placed and each order can be retried on its own;
+            // any other failure may come after the commit and fails the batch instead.
+            logger.debug("Batch of {} orders rolled back, placing them one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::placeOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            OrderService.PlacementResult result = results.get(i);
+            if (result.order() != null) {
+                batch.get(i).complete(result.order());
+            } else {
+                batch.get(i).fail(result.error());
+            }
+        }
+    }
+
+    private void placeOne(OrderSubmission submission) {
+        try {
+            submission.complete(orderService.createOrder(submission.getRequest(), submission.getUsername()));
+        } catch (RuntimeException e) {
+            submission.fail(e.getMessage());
+        }
+    }
+
+    private OrderSubmission findByKey(String key) {
+        OrderSubmission submission = pendingByKey.get(key);
+        return submission != null ? submission : finishedByKey.get(key);
+    }
+
+    // Moves a finished submission to the bounded cache; added there first, so a retry always
+    // finds it in one of the two
+    private void retire(OrderSubmission submission) {
+        finishedByKey.put(submission.getKey(), submission);
+        finishedById.put(submission.getId(), submission);
+        pendingById.remove(submission.getId(), submission);
+        pendingByKey.remove(submission.getKey(), submission);
+    }
+
+    private static String key(String username, String idempotencyKey) {
+        return username + '\n' + idempotencyKey;
+    }
+}
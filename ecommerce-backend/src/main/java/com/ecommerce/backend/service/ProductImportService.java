@@ -0,0 +1,422 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.cache.CatalogCache;
+import com.ecommerce.backend.cache.ProductFeeds;
+import com.ecommerce.backend.dto.ProductImportResponse;
+import com.ecommerce.backend.dto.ProductImportRow;
+import com.ecommerce.backend.entity.Category;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.inventory.InventoryLedger;
+import com.ecommerce.backend.repository.CategoryRepository;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.search.ProductSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk product create and update from a CSV or NDJSON upload. The upload is parsed as it
+ * streams in and valid rows are written in chunks, each chunk in its own transaction as
+ * one JDBC batch of inserts and one of updates; a chunk that commits stays committed even
+ * if later rows are rejected. Every rejected row is counted and reported with its line.
+ *
+ * CSV uploads need a header naming their columns: id, name, description, price,
+ * stock_quantity, image_url and category (the category's name), in any order and any
+ * subset. NDJSON rows use the {@link ProductImportRow} field names.
+ *
+ * After each chunk the catalog cache, feeds, facets and search index are updated for the
+ * products it wrote, and with the inventory ledger enabled the chunk is a write-through
+ * for the products it updates.
+ */
+@Service
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    // Ids come from products_seq, whose values each cover a block of this many ids
+    // (see the pooled generator on Product)
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, description, price, stock_quantity, "
+            + "image_url, category_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Columns missing from the row keep their current value
+    private static final String UPDATE_SQL = "UPDATE products SET name = COALESCE(?, name), "
+            + "description = COALESCE(?, description), price = COALESCE(?, price), "
+            + "stock_quantity = COALESCE(?, stock_quantity), image_url = COALESCE(?, image_url), "
+            + "category_id = COALESCE(?, category_id), updated_at = ? WHERE id = ?";
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("id", "name", "description", "price", "stock_quantity", "image_url", "category");
+
+    public enum Format { NDJSON, CSV }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductFeeds productFeeds;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${product-import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${product-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * @throws IllegalArgumentException if the upload cannot be parsed at all, for example
+     *                                  a CSV header naming an unknown column
+     */
+    public ProductImportResponse importProducts(Format format, InputStream upload) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportRun run = new ImportRun();
+        InputStreamReader reader = new InputStreamReader(upload, StandardCharsets.UTF_8);
+        if (format == Format.CSV) {
+            readCsv(new CsvReader(reader), run);
+        } else {
+            readNdjson(new BufferedReader(reader, 64 * 1024), run);
+        }
+        run.writePending();
+
+        // Rows missing from the database are only found when their chunk is written
+        run.errors.sort(Comparator.comparingLong(ProductImportResponse.RowError::line));
+        logger.info("Imported products in {} ms: {} rows, {} inserted, {} updated, {} failed",
+                System.currentTimeMillis() - started, run.rows, run.inserted, run.updated, run.failed);
+        return new ProductImportResponse(run.rows, run.inserted, run.updated, run.failed, run.errors,
+                run.failed > run.errors.size());
+    }
+
+    private void readCsv(CsvReader csv, ImportRun run) throws IOException {
+        List<String> header = csv.read();
+        if (header == null) {
+            return;
+        }
+        int[] columns = new int[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            name = name.strip().toLowerCase(Locale.ROOT);
+            columns[i] = CSV_COLUMNS.indexOf(name);
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Unknown CSV column '" + header.get(i) + "', expected some of "
+                        + String.join(",", CSV_COLUMNS));
+            }
+        }
+
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.read();
+            } catch (IllegalArgumentException e) {
+                // An unterminated quote swallows the rest of the upload
+                run.rows++;
+                run.reject(csv.recordLine(), e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            long line = csv.recordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            run.rows++;
+            if (record.size() != columns.length) {
+                run.reject(line, "Expected " + columns.length + " fields but found " + record.size());
+                continue;
+            }
+            String[] values = new String[CSV_COLUMNS.size()];
+            for (int i = 0; i < columns.length; i++) {
+                String value = record.get(i);
+                values[columns[i]] = value.isEmpty() ? null : value;
+            }
+            ProductImportRow row;
+            try {
+                row = new ProductImportRow(
+                        values[0] != null ? Long.valueOf(values[0].strip()) : null,
+                        values[1], values[2],
+                        values[3] != null ? new BigDecimal(values[3].strip()) : null,
+                        values[4] != null ? Integer.valueOf(values[4].strip()) : null,
+                        values[5], values[6]);
+            } catch (NumberFormatException e) {
+                run.reject(line, "id, price and stock_quantity must be numbers");
+                continue;
+            }
+            run.add(line, row);
+        }
+    }
+
+    private void readNdjson(BufferedReader lines, ImportRun run) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(ProductImportRow.class);
+        long line = 0;
+        String text;
+        while ((text = lines.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            run.rows++;
+            ProductImportRow row;
+            try {
+                row = rowReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                run.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.add(line, row);
+        }
+    }
+
+    /** Reserves count new product ids from the sequence without racing Hibernate for them. */
+    private long[] reserveIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i += ID_BLOCK_SIZE) {
+            long top = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR products_seq", Long.class);
+            for (int j = i; j < Math.min(count, i + ID_BLOCK_SIZE); j++) {
+                ids[j] = top - ID_BLOCK_SIZE + 1 + (j - i);
+            }
+        }
+        return ids;
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private record ValidRow(long line, ProductImportRow row, Long categoryId) {
+    }
+
+    /** State of one import: the chunk being collected, counts, errors and looked-up categories. */
+    private final class ImportRun {
+        private final List<ValidRow> pending = new ArrayList<>(chunkSize);
+        private final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+        // Category name -> id, or null for a name that does not exist
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        private long rows;
+        private long inserted;
+        private long updated;
+        private long failed;
+
+        void add(long line, ProductImportRow row) {
+            String error = validate(row);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            Long categoryId = null;
+            if (StringUtils.hasText(row.category())) {
+                String name = row.category().strip();
+                if (!categoryIds.containsKey(name)) {
+                    categoryIds.put(name, categoryRepository.findByName(name).map(Category::getId).orElse(null));
+                }
+                categoryId = categoryIds.get(name);
+                if (categoryId == null) {
+                    reject(line, "Unknown category: " + name);
+                    return;
+                }
+            }
+            pending.add(new ValidRow(line, row, categoryId));
+            if (pending.size() >= chunkSize) {
+                writePending();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportResponse.RowError(line, message));
+            }
+        }
+
+        void writePending() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ValidRow> inserts = new ArrayList<>();
+            List<ValidRow> updates = new ArrayList<>();
+            for (ValidRow valid : pending) {
+                (valid.row().id() == null ? inserts : updates).add(valid);
+            }
+            pending.clear();
+
+            long[] newIds = reserveIds(inserts.size());
+            List<Long> updateIds = new ArrayList<>(updates.size());
+            updates.forEach(valid -> updateIds.add(valid.row().id()));
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            int[] updateCounts;
+            try {
+                updateCounts = inventoryLedger.writeThrough(updateIds, () -> transaction.execute(status -> {
+                    if (!inserts.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_SQL, insertSetter(inserts, newIds, now));
+                    }
+                    return updates.isEmpty() ? new int[0]
+                            : jdbcTemplate.batchUpdate(UPDATE_SQL, updateSetter(updates, now));
+                }));
+            } catch (DataAccessException e) {
+                String message = "Rejected with its chunk: " + e.getMostSpecificCause().getMessage();
+                inserts.forEach(valid -> reject(valid.line(), message));
+                updates.forEach(valid -> reject(valid.line(), message));
+                return;
+            }
+
+            List<Long> changed = new ArrayList<>(inserts.size() + updates.size());
+            List<Long> renamed = new ArrayList<>();
+            for (int i = 0; i < inserts.size(); i++) {
+                ProductImportRow row = inserts.get(i).row();
+                Product product = new Product();
+                product.setId(newIds[i]);
+                product.setName(row.name());
+                product.setDescription(row.description());
+                productSearchIndex.index(product);
+                changed.add(newIds[i]);
+            }
+            inserted += inserts.size();
+            for (int i = 0; i < updates.size(); i++) {
+                ValidRow valid = updates.get(i);
+                if (updateCounts[i] == 0) {
+                    reject(valid.line(), "Product not found: " + valid.row().id());
+                    continue;
+                }
+                updated++;
+                changed.add(valid.row().id());
+                if (valid.row().name() != null || valid.row().description() != null) {
+                    renamed.add(valid.row().id());
+                }
+            }
+            if (!renamed.isEmpty()) {
+                productRepository.findAllById(renamed).forEach(productSearchIndex::index);
+            }
+            catalogCache.evictProducts(changed);
+            productFeeds.productsChanged(changed);
+        }
+
+        private String validate(ProductImportRow row) {
+            if (row.id() == null) {
+                if (!StringUtils.hasText(row.name()) || row.price() == null || row.stockQuantity() == null) {
+                    return "New products need a name, price and stock quantity";
+                }
+            } else if (row.name() == null && row.description() == null && row.price() == null
+                    && row.stockQuantity() == null && row.imageUrl() == null && row.category() == null) {
+                return "Nothing to update";
+            }
+            if (row.name() != null && (row.name().isBlank() || row.name().length() > 200)) {
+                return "Name must be 1 to 200 characters";
+            }
+            if (row.description() != null && row.description().length() > 1000) {
+                return "Description must be at most 1000 characters";
+            }
+            if (row.price() != null && (row.price().signum() <= 0 || row.price().scale() > 2
+                    || row.price().precision() - row.price().scale() > 8)) {
+                return "Price must be positive, below 100000000 and have at most two decimals";
+            }
+            if (row.stockQuantity() != null && row.stockQuantity() < 0) {
+                return "Stock quantity must not be negative";
+            }
+            if (row.imageUrl() != null && row.imageUrl().length() > 500) {
+                return "Image URL must be at most 500 characters";
+            }
+            return null;
+        }
+    }
+
+    private static BatchPreparedStatementSetter insertSetter(List<ValidRow> rows, long[] ids, Timestamp now) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ValidRow valid = rows.get(i);
+                ProductImportRow row = valid.row();
+                ps.setLong(1, ids[i]);
+                ps.setString(2, row.name());
+                setNullable(ps, 3, row.description(), Types.VARCHAR);
+                ps.setBigDecimal(4, row.price());
+                ps.setInt(5, row.stockQuantity());
+                setNullable(ps, 6, row.imageUrl(), Types.VARCHAR);
+                setNullable(ps, 7, valid.categoryId(), Types.BIGINT);
+                ps.setTimestamp(8, now);
+                ps.setTimestamp(9, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+
+    private static BatchPreparedStatementSetter updateSetter(List<ValidRow> rows, Timestamp now) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ValidRow valid = rows.get(i);
+                ProductImportRow row = valid.row();
+                setNullable(ps, 1, row.name(), Types.VARCHAR);
+                setNullable(ps, 2, row.description(), Types.VARCHAR);
+                setNullable(ps, 3, row.price(), Types.DECIMAL);
+                setNullable(ps, 4, row.stockQuantity(), Types.INTEGER);
+                setNullable(ps, 5, row.imageUrl(), Types.VARCHAR);
+                setNullable(ps, 6, valid.categoryId(), Types.BIGINT);
+                ps.setTimestamp(7, now);
+                ps.setLong(8, row.id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+}
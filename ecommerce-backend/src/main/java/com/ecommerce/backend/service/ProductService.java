@@ -1,16 +1,36 @@
 package com.ecommerce.backend.service;
 
+import com.ecommerce.backend.cache.CatalogCache;
+import com.ecommerce.backend.cache.ProductFeeds;
+import com.ecommerce.backend.dto.CategoryResponse;
+import com.ecommerce.backend.dto.CursorPage;
+import com.ecommerce.backend.dto.ProductFilterResponse;
+import com.ecommerce.backend.dto.ProductResponse;
 import com.ecommerce.backend.entity.Product;
 import com.ecommerce.backend.entity.Category;
+import com.ecommerce.backend.inventory.InventoryLedger;
+import com.ecommerce.backend.pagination.KeysetCursor;
 import com.ecommerce.backend.repository.ProductRepository;
 import com.ecommerce.backend.repository.CategoryRepository;
+import com.ecommerce.backend.search.ProductFacetIndex;
+import com.ecommerce.backend.search.ProductSearchIndex;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,43 +41,174 @@ public class ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable);
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductFeeds productFeeds;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    public Page<ProductResponse> getAllProducts(Pageable pageable) {
+        return productRepository.findAll(pageable).map(ProductResponse::from);
     }
 
-    public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+    public Optional<ProductResponse> getProductById(Long id) {
+        return Optional.ofNullable(catalogCache.getProduct(id,
+                key -> productRepository.findById(key).map(ProductResponse::from).orElse(null)));
     }
 
-    public Page<Product> getProductsByCategory(Long categoryId, Pageable pageable) {
+    public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
         Optional<Category> category = categoryRepository.findById(categoryId);
         if (category.isPresent()) {
-            return productRepository.findByCategory(category.get(), pageable);
+            return productRepository.findByCategory(category.get(), pageable).map(ProductResponse::from);
         }
         return Page.empty();
     }
 
-    public Page<Product> searchProducts(String name, Pageable pageable) {
-        return productRepository.findByNameContaining(name, pageable);
+    public Page<ProductResponse> searchProducts(String name, Pageable pageable) {
+        if (!StringUtils.hasText(name)) {
+            return getAllProducts(pageable);
+        }
+
+        // Only the matches up to the end of the requested page are ranked
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        ProductSearchIndex.Hits hits = productSearchIndex.search(name, limit);
+        List<Long> rankedIds = hits.ids();
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        return new PageImpl<>(loadInOrder(rankedIds.subList(from, rankedIds.size())), pageable, hits.total());
+    }
+
+    public Page<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        return productRepository.findByPriceBetween(minPrice, maxPrice, pageable).map(ProductResponse::from);
+    }
+
+    /**
+     * Combined text, category, price and stock filter. Matching and facet counting run on
+     * {@link ProductFacetIndex}; only the products on the returned page are loaded.
+     */
+    public ProductFilterResponse filterProducts(String text, Collection<Long> categoryIds, BigDecimal minPrice,
+                                                BigDecimal maxPrice, boolean inStockOnly, Pageable pageable) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        List<Long> textMatches = StringUtils.hasText(text) ? productSearchIndex.search(text) : null;
+        ProductFacetIndex.Result result = productFacetIndex.filter(textMatches, categoryIds, minPrice, maxPrice,
+                inStockOnly, pageable.getOffset(), pageable.getPageSize());
+
+        Page<ProductResponse> products = new PageImpl<>(loadInOrder(result.ids()), pageable, result.total());
+
+        List<ProductFilterResponse.CategoryFacet> categories = new ArrayList<>();
+        for (CategoryResponse category : categoryService.getAllCategories()) {
+            Integer count = result.categoryCounts().get(category.id());
+            if (count != null) {
+                categories.add(new ProductFilterResponse.CategoryFacet(category.id(), category.name(), count));
+            }
+        }
+
+        List<BigDecimal> bounds = ProductFacetIndex.priceBucketLowerBounds();
+        List<ProductFilterResponse.PriceFacet> priceRanges = new ArrayList<>(bounds.size());
+        for (int i = 0; i < bounds.size(); i++) {
+            BigDecimal max = i + 1 < bounds.size() ? bounds.get(i + 1) : null;
+            priceRanges.add(new ProductFilterResponse.PriceFacet(bounds.get(i), max, result.priceBucketCounts()[i]));
+        }
+        return new ProductFilterResponse(products, categories, priceRanges);
+    }
+
+    // The home page feeds are served from ProductFeeds once it has been built at startup
+    public List<ProductResponse> getLatestProducts() {
+        if (productFeeds.isBuilt()) {
+            return productFeeds.getLatest();
+        }
+        return productRepository.findTop8ByOrderByCreatedAtDesc().stream()
+                .map(ProductResponse::from)
+                .toList();
+    }
+
+    public Page<ProductResponse> getAvailableProducts(Pageable pageable) {
+        if (productFeeds.isBuilt()) {
+            Page<Long> ids = productFeeds.getAvailableIds(pageable);
+            return new PageImpl<>(loadInOrder(ids.getContent()), pageable, ids.getTotalElements());
+        }
+        return productRepository.findAvailableProducts(pageable).map(ProductResponse::from);
+    }
+
+    private List<ProductResponse> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            productsById.put(product.getId(), product);
+        }
+        List<ProductResponse> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = productsById.get(id);
+            if (product != null) {
+                content.add(ProductResponse.from(product));
+            }
+        }
+        return content;
+    }
+
+    // Keyset (cursor) variants of the listings above: no offset scan and no count query.
+
+    public CursorPage<ProductResponse> scrollAllProducts(String cursor, int size, Sort sort) {
+        return scrollProducts((root, query, cb) -> cb.conjunction(), cursor, size, sort);
     }
 
-    public Page<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+    public CursorPage<ProductResponse> scrollProductsByCategory(Long categoryId, String cursor, int size) {
+        return scrollProducts((root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId),
+                cursor, size, Sort.by("id"));
     }
 
-    public List<Product> getLatestProducts() {
-        return productRepository.findTop8ByOrderByCreatedAtDesc();
+    public CursorPage<ProductResponse> scrollAvailableProducts(String cursor, int size) {
+        return scrollProducts((root, query, cb) -> cb.gt(root.get("stockQuantity"), 0),
+                cursor, size, Sort.by("id"));
     }
 
-    public Page<Product> getAvailableProducts(Pageable pageable) {
-        return productRepository.findAvailableProducts(pageable);
+    private CursorPage<ProductResponse> scrollProducts(Specification<Product> spec, String cursor, int size, Sort sort) {
+        Sort keysetSort = KeysetCursor.withIdTieBreaker(sort);
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, keysetSort, Product.class);
+        // Scroll queries issue no count query, so the category can be fetch-joined directly
+        Specification<Product> fetchCategory = (root, query, cb) -> {
+            root.fetch("category", JoinType.LEFT);
+            return null;
+        };
+        // One extra row tells whether there is a next slice
+        List<Product> rows = productRepository.findBy(
+                spec.and(fetchCategory).and(KeysetCursor.seek(position, keysetSort)),
+                query -> query.limit(size + 1).all());
+        return KeysetCursor.toCursorPage(rows, size, keysetSort, ProductResponse::from);
     }
 
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = product.getId() != null
+                ? inventoryLedger.writeThrough(product.getId(), () -> productRepository.save(product))
+                : productRepository.save(product);
+        productSearchIndex.index(saved);
+        catalogCache.evictProduct(saved.getId());
+        productFeeds.productsChanged(List.of(saved.getId()));
+        return saved;
     }
 
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        inventoryLedger.writeThrough(id, () -> {
+            productRepository.deleteById(id);
+            return null;
+        });
+        productSearchIndex.remove(id);
+        catalogCache.evictProduct(id);
+        productFeeds.productsChanged(List.of(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.ecommerce.backend.service;
+
+import java.util.Collections;
+import java.util.List;
+
+public class StockReservationException extends RuntimeException {
+    private final List<LineFailure> failures;
+
+    public StockReservationException(List<LineFailure> failures) {
+        super(buildMessage(failures));
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    private static String buildMessage(List<LineFailure> failures) {
+        StringBuilder message = new StringBuilder();
+        for (LineFailure failure : failures) {
+            if (message.length() > 0) {
+                message.append("; ");
+            }
+            message.append(failure.getReason());
+        }
+        return message.toString();
+    }
+
+    public List<LineFailure> getFailures() { return failures; }
+
+    public static class LineFailure {
+        private final Long productId;
+        private final Integer requestedQuantity;
+        private final String reason;
+
+        public LineFailure(Long productId, Integer requestedQuantity, String reason) {
+            this.productId = productId;
+            this.requestedQuantity = requestedQuantity;
+            this.reason = reason;
+        }
+
+        public Long getProductId() { return productId; }
+        public Integer getRequestedQuantity() { return requestedQuantity; }
+        public String getReason() { return reason; }
+    }
+}
@@ -0,0 +1,261 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.cache.CatalogCache;
+import com.ecommerce.backend.cache.ProductFeeds;
+import com.ecommerce.backend.dto.OrderRequest.OrderItemRequest;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.inventory.InventoryLedger;
+import com.ecommerce.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class StockReservationService {
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductFeeds productFeeds;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Reserves stock for every line of an order inside the caller's transaction.
+     * Products are loaded with a single query and each line is decremented with a
+     * conditional UPDATE, so stock can never go negative under concurrent checkouts.
+     * If any line fails, all failures are reported together and the caller's
+     * transaction rolls back the lines that were already decremented.
+     *
+     * With the inventory ledger enabled the lines are reserved in memory instead and the
+     * products table catches up when the ledger flushes.
+     *
+     * Decrementing clears the persistence context, so entities the caller loaded earlier
+     * are detached afterwards.
+     *
+     * @return the reserved products keyed by id, re-read after the decrement
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Product> reserve(List<OrderItemRequest> items) {
+        List<StockReservationException.LineFailure> failures = new ArrayList<>();
+        Map<Long, Integer> requested = mergeLines(items, failures);
+        Map<Long, Product> products = loadProducts(requested.keySet());
+        addMissingProducts(requested, products, failures);
+        if (!failures.isEmpty()) {
+            throw new StockReservationException(failures);
+        }
+
+        if (inventoryLedger.isEnabled()) {
+            for (Long id : inventoryLedger.reserve(requested)) {
+                countFailure("insufficient");
+                failures.add(insufficientStock(products.get(id), requested.get(id)));
+            }
+            if (!failures.isEmpty()) {
+                throw new StockReservationException(failures);
+            }
+            return products;
+        }
+
+        for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+            Product product = products.get(line.getKey());
+            // The loaded quantity lets obviously short lines fail without touching the row;
+            // the conditional update is what actually guards against oversell.
+            String failure = null;
+            if (product.getStockQuantity() < line.getValue()) {
+                failure = "insufficient";
+            } else if (productRepository.decrementStock(line.getKey(), line.getValue()) == 0) {
+                // Stock looked sufficient when loaded but a concurrent checkout took it first
+                failure = "conflict";
+            }
+            if (failure != null) {
+                countFailure(failure);
+                failures.add(insufficientStock(product, line.getValue()));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new StockReservationException(failures);
+        }
+
+        catalogCache.evictProducts(requested.keySet());
+        productFeeds.productsChanged(requested.keySet());
+        return reloadProducts(requested.keySet());
+    }
+
+    /**
+     * Reserves stock for several orders at once inside the caller's transaction. All
+     * products are loaded with one query and the orders are checked in sequence against
+     * the remaining stock, so an order that cannot be filled fails on its own without
+     * affecting the others. The accepted quantities are then decremented with a single
+     * conditional UPDATE per product rather than one per order line.
+     *
+     * If a concurrent checkout takes stock between the check and the UPDATE, the whole
+     * batch is rejected with a StockReservationException; the caller's transaction rolls
+     * back and the orders should be reserved one by one with {@link #reserve}. With the
+     * inventory ledger enabled each order is reserved in memory on its own and no
+     * conflict can occur.
+     *
+     * @return one reservation per order, in the same order
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Reservation> reserveAll(List<List<OrderItemRequest>> orders) {
+        List<Map<Long, Integer>> requestedPerOrder = new ArrayList<>(orders.size());
+        List<List<StockReservationException.LineFailure>> failuresPerOrder = new ArrayList<>(orders.size());
+        Set<Long> productIds = new HashSet<>();
+        for (List<OrderItemRequest> items : orders) {
+            List<StockReservationException.LineFailure> failures = new ArrayList<>();
+            Map<Long, Integer> requested = mergeLines(items, failures);
+            requestedPerOrder.add(requested);
+            failuresPerOrder.add(failures);
+            productIds.addAll(requested.keySet());
+        }
+        Map<Long, Product> products = loadProducts(productIds);
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        products.forEach((id, product) -> remaining.put(id, product.getStockQuantity()));
+        Map<Long, Integer> reservedTotals = new TreeMap<>();
+        List<Reservation> reservations = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Map<Long, Integer> requested = requestedPerOrder.get(i);
+            List<StockReservationException.LineFailure> failures = failuresPerOrder.get(i);
+            addMissingProducts(requested, products, failures);
+            if (failures.isEmpty() && inventoryLedger.isEnabled()) {
+                for (Long id : inventoryLedger.reserve(requested)) {
+                    countFailure("insufficient");
+                    failures.add(insufficientStock(products.get(id), requested.get(id)));
+                }
+            } else if (failures.isEmpty()) {
+                for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+                    if (remaining.get(line.getKey()) < line.getValue()) {
+                        countFailure("insufficient");
+                        failures.add(insufficientStock(products.get(line.getKey()), line.getValue()));
+                    }
+                }
+            }
+            if (!failures.isEmpty()) {
+                reservations.add(new Reservation(null, new StockReservationException(failures)));
+                continue;
+            }
+
+            Map<Long, Product> reserved = new HashMap<>();
+            for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+                if (!inventoryLedger.isEnabled()) {
+                    remaining.merge(line.getKey(), -line.getValue(), Integer::sum);
+                    reservedTotals.merge(line.getKey(), line.getValue(), Integer::sum);
+                }
+                reserved.put(line.getKey(), products.get(line.getKey()));
+            }
+            reservations.add(new Reservation(reserved, null));
+        }
+        if (reservedTotals.isEmpty()) {
+            return reservations;
+        }
+
+        // Products are visited in id order, like reserve, so concurrent batches lock rows consistently
+        List<StockReservationException.LineFailure> conflicts = new ArrayList<>();
+        for (Map.Entry<Long, Integer> total : reservedTotals.entrySet()) {
+            if (productRepository.decrementStock(total.getKey(), total.getValue()) == 0) {
+                countFailure("conflict");
+                conflicts.add(insufficientStock(products.get(total.getKey()), total.getValue()));
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new StockReservationException(conflicts);
+        }
+
+        catalogCache.evictProducts(reservedTotals.keySet());
+        productFeeds.productsChanged(reservedTotals.keySet());
+        Map<Long, Product> decremented = reloadProducts(reservedTotals.keySet());
+        for (Reservation reservation : reservations) {
+            if (reservation.products() != null) {
+                reservation.products().replaceAll(decremented::getOrDefault);
+            }
+        }
+        return reservations;
+    }
+
+    // Merges duplicate lines and visits products in id order so that concurrent
+    // reservations always lock rows in the same sequence.
+    private Map<Long, Integer> mergeLines(List<OrderItemRequest> items,
+                                          List<StockReservationException.LineFailure> failures) {
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (OrderItemRequest item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0
+                    || item.getQuantity() > OrderItemRequest.MAX_QUANTITY) {
+                failures.add(new StockReservationException.LineFailure(item.getProductId(), item.getQuantity(),
+                        "Invalid quantity for product: " + item.getProductId()));
+                countFailure("invalid");
+                continue;
+            }
+            // Saturating, so enough duplicate lines cannot wrap the total around to a negative
+            requested.merge(item.getProductId(), item.getQuantity(),
+                    (a, b) -> (int) Math.min((long) a + b, Integer.MAX_VALUE));
+        }
+        for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+            if (line.getValue() > OrderItemRequest.MAX_QUANTITY) {
+                failures.add(new StockReservationException.LineFailure(line.getKey(), line.getValue(),
+                        "Invalid quantity for product: " + line.getKey()));
+                countFailure("invalid");
+            }
+        }
+        return requested;
+    }
+
+    private Map<Long, Product> loadProducts(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    // The decrements bypassed the loaded entities, which the responses would otherwise report
+    private Map<Long, Product> reloadProducts(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findByIdInOrderById(ids)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    private void addMissingProducts(Map<Long, Integer> requested, Map<Long, Product> products,
+                                    List<StockReservationException.LineFailure> failures) {
+        for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+            if (!products.containsKey(line.getKey())) {
+                failures.add(new StockReservationException.LineFailure(line.getKey(), line.getValue(),
+                        "Product not found: " + line.getKey()));
+                countFailure("not_found");
+            }
+        }
+    }
+
+    private static StockReservationException.LineFailure insufficientStock(Product product, int quantity) {
+        return new StockReservationException.LineFailure(product.getId(), quantity,
+                "Insufficient stock for product: " + product.getName());
+    }
+
+    private void countFailure(String reason) {
+        meterRegistry.counter("stock.reservation.failures", "reason", reason).increment();
+    }
+
+    /** Either the reserved products keyed by id, or why the order could not be reserved. */
+    public record Reservation(Map<Long, Product> products, StockReservationException failure) {
+    }
+}
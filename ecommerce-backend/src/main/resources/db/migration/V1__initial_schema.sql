@@ -0,0 +1,63 @@
+-- Baseline schema, equivalent to what Hibernate generated with ddl-auto=create-drop.
+
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(100) UNIQUE,
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username   VARCHAR(50) UNIQUE,
+    email      VARCHAR(100) UNIQUE,
+    password   VARCHAR(100),
+    first_name VARCHAR(50),
+    last_name  VARCHAR(50),
+    address    VARCHAR(200),
+    phone      VARCHAR(20),
+    role       VARCHAR(255) CHECK (role IN ('USER', 'ADMIN')),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE products (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name           VARCHAR(200),
+    description    VARCHAR(1000),
+    price          NUMERIC(10, 2),
+    stock_quantity INTEGER CHECK (stock_quantity >= 0),
+    image_url      VARCHAR(500),
+    category_id    BIGINT,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE orders (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id          BIGINT NOT NULL,
+    total_amount     NUMERIC(10, 2),
+    status           VARCHAR(255) CHECK (status IN ('PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    shipping_address VARCHAR(200),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_items (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id   BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity   INTEGER CHECK (quantity >= 1),
+    price      NUMERIC(10, 2),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
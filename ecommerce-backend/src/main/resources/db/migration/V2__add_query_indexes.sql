@@ -0,0 +1,19 @@
+-- Indexes for the filters and sorts issued by ProductRepository and OrderRepository.
+
+-- findByCategory, findByCategoryAndPriceBetween (category_id equality, then price range)
+CREATE INDEX idx_products_category_price ON products (category_id, price);
+-- findByPriceBetween
+CREATE INDEX idx_products_price ON products (price);
+-- findTop8ByOrderByCreatedAtDesc
+CREATE INDEX idx_products_created_at ON products (created_at DESC);
+-- findAvailableProducts (stock_quantity > 0)
+CREATE INDEX idx_products_stock_quantity ON products (stock_quantity);
+
+-- findByUser, countByUser, findByUserOrderByCreatedAtDesc
+CREATE INDEX idx_orders_user_created_at ON orders (user_id, created_at);
+-- findByUserAndStatus
+CREATE INDEX idx_orders_user_status ON orders (user_id, status);
+
+-- OrderItemRepository.findByOrder and order item batch fetches
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_product ON order_items (product_id);
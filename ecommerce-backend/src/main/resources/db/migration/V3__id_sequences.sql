@@ -0,0 +1,19 @@
+-- Sequence-backed ids so Hibernate can batch inserts (IDENTITY forces one INSERT per row).
+-- INCREMENT BY must equal allocationSize on the entities' @SequenceGenerator.
+-- The pooled optimizer treats each fetched value as the top of a block of 50, so each
+-- sequence restarts at MAX(id) + 50 to keep new ids above existing rows.
+
+CREATE SEQUENCE categories_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE categories_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM categories);
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE products_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM products);
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE orders_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM orders);
+
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE order_items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items);
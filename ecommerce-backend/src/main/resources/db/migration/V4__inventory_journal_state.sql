@@ -0,0 +1,10 @@
+-- Progress of the optional inventory ledger's write-behind (InventoryLedger). A single row:
+-- epoch names the journal files that belong to this database, and applied_segment is the
+-- last journal segment whose stock changes were written to products, updated in the same
+-- transaction as those changes so a segment is never applied twice.
+
+CREATE TABLE inventory_journal_state (
+    id              INTEGER PRIMARY KEY,
+    epoch           VARCHAR(36) NOT NULL,
+    applied_segment BIGINT      NOT NULL
+);
@@ -0,0 +1,112 @@
+package com.ecommerce.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+    @Test
+    void staysWithinMaxSizeAndPrefersEvictingIdleEntries() throws InterruptedException {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(1000, 60_000);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "v" + i);
+        }
+        Thread.sleep(5);
+        // Every other entry is read again, so it is newer than the idle half
+        for (int i = 0; i < 1000; i += 2) {
+            cache.get(i);
+        }
+        Thread.sleep(5);
+        for (int i = 1000; i < 1250; i++) {
+            cache.put(i, "v" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(1000);
+        assertThat(cache.getEvictionCount()).isEqualTo(250);
+        int hotKept = 0;
+        int idleKept = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (cache.get(i) != null) {
+                if (i % 2 == 0) {
+                    hotKept++;
+                } else {
+                    idleKept++;
+                }
+            }
+        }
+        // Sampling is approximate, but the evictions should fall almost entirely on idle entries
+        assertThat(hotKept).isGreaterThan(475);
+        assertThat(idleKept).isLessThan(275);
+        assertThat(cache.get(1249)).isEqualTo("v1249");
+    }
+
+    @Test
+    void expiredEntriesAreMisses() throws InterruptedException {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 20);
+        cache.put("a", "1");
+        assertThat(cache.get("a")).isEqualTo("1");
+        Thread.sleep(40);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void sizeOneCacheKeepsTheNewestValue() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(1, 60_000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertThat(cache.get("b")).isEqualTo("2");
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsReturnedButNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+        String loaded = cache.get("a", key -> {
+            // The row changes and is evicted while this load still holds the old value
+            cache.invalidate("a");
+            return "old";
+        });
+        assertThat(loaded).isEqualTo("old");
+        assertThat(cache.get("a")).isNull();
+
+        long generation = cache.generation("b");
+        cache.invalidateAll();
+        cache.putIfUnchanged("b", "old", generation);
+        assertThat(cache.get("b")).isNull();
+
+        assertThat(cache.get("a", key -> "new")).isEqualTo("new");
+        assertThat(cache.get("a")).isEqualTo("new");
+    }
+
+    @Test
+    void concurrentWritersStayBounded() throws Exception {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(500, 60_000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(500);
+    }
+}
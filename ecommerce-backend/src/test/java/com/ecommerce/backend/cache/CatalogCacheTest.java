@@ -0,0 +1,81 @@
+package com.ecommerce.backend.cache;
+
+import com.ecommerce.backend.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CatalogCacheTest {
+    private static final long PRODUCT_ID = 987_654L;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rowReadBeforeACommitIsNotCachedAfterIt() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch read = new CountDownLatch(2);
+        CountDownLatch committed = new CountDownLatch(1);
+        try {
+            // Readers miss and read the row as it was before the writer commits ...
+            Future<ProductResponse> reader = pool.submit(() -> catalogCache.getProduct(PRODUCT_ID, id -> {
+                ProductResponse old = product(id, "1.00");
+                read.countDown();
+                await(committed);
+                return old;
+            }));
+            Future<ProductResponse> bulkReader = pool.submit(() -> catalogCache.getProducts(List.of(PRODUCT_ID + 1),
+                    ids -> {
+                        List<ProductResponse> old = List.of(product(ids.get(0), "1.00"));
+                        read.countDown();
+                        await(committed);
+                        return old;
+                    }).get(PRODUCT_ID + 1));
+            assertThat(read.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // ... the writer commits and evicts ...
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> catalogCache.evictProducts(List.of(PRODUCT_ID, PRODUCT_ID + 1)));
+            committed.countDown();
+
+            // ... and the old rows the readers then return must not be cached
+            assertThat(reader.get(30, TimeUnit.SECONDS).price()).isEqualByComparingTo("1.00");
+            assertThat(bulkReader.get(30, TimeUnit.SECONDS).price()).isEqualByComparingTo("1.00");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(catalogCache.getProduct(PRODUCT_ID, id -> product(id, "2.00")).price())
+                .isEqualByComparingTo("2.00");
+        assertThat(catalogCache.getProducts(List.of(PRODUCT_ID + 1), ids -> List.of(product(ids.get(0), "2.00")))
+                .get(PRODUCT_ID + 1).price()).isEqualByComparingTo("2.00");
+    }
+
+    private static ProductResponse product(Long id, String price) {
+        return new ProductResponse(id, "Cache probe", null, new BigDecimal(price), 1, null, null, null, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.backend.controller;
+
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.search.ProductFacetIndex;
+import com.ecommerce.backend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The latest products are refreshed on a background thread after a write commits. A GET
+ * that arrives before that refresh must not leave the old feed cached for good, nor hand
+ * out an ETag that keeps matching once the feed has changed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LatestProductsResponseTest {
+    @Autowired
+    private ProductService productService;
+
+    @SpyBean
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getRightAfterAWriteDoesNotPinTheOldFeed() throws Exception {
+        latest();
+        CountDownLatch release = holdFeedRefresh();
+
+        String name = saveProduct();
+        latest();
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        String body = latest();
+        while (!body.contains(name) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = latest();
+        }
+        assertThat(body).contains(name);
+    }
+
+    @Test
+    void etagServedBeforeTheRefreshStopsMatchingAfterIt() throws Exception {
+        CountDownLatch release = holdFeedRefresh();
+        String name = saveProduct();
+        MockHttpServletResponse beforeRefresh = mockMvc.perform(get("/products/latest"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse();
+        String etag = beforeRefresh.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        MockHttpServletResponse revalidated = revalidate(etag);
+        while (revalidated.getStatus() == HttpStatus.NOT_MODIFIED.value() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            revalidated = revalidate(etag);
+        }
+        assertThat(revalidated.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(revalidated.getContentAsString()).contains(name);
+    }
+
+    // Holds the feed refresh until the returned latch is released
+    private CountDownLatch holdFeedRefresh() {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("product-feeds-refresh")) {
+                release.await(30, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(productFacetIndex).index(any());
+        return release;
+    }
+
+    private String saveProduct() {
+        String name = "Latest probe " + UUID.randomUUID();
+        productService.saveProduct(new Product(name, null, new BigDecimal("3.00"), 5, null, null));
+        return name;
+    }
+
+    private MockHttpServletResponse revalidate(String etag) throws Exception {
+        return mockMvc.perform(get("/products/latest").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+    }
+
+    private String latest() throws Exception {
+        return mockMvc.perform(get("/products/latest"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.backend.controller;
+
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.metrics.SqlStatementCounter;
+import com.ecommerce.backend.metrics.StatementCapture;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.service.OrderService;
+import com.ecommerce.backend.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Order history pages must not lazy-load items, products or categories per order. The
+ * capture wraps the MockMvc call while StatementCountingFilter captures the same request.
+ * The orders are placed once for the class and removed afterwards, since the context and
+ * its {@code user} are shared with other tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderHistoryStatementTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeAll
+    void placeOrders() {
+        List<OrderRequest.OrderItemRequest> lines = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = productRepository.save(
+                    new Product("History probe " + i, null, new BigDecimal("2.00"), 100, null, null));
+            productIds.add(product.getId());
+            lines.add(new OrderRequest.OrderItemRequest(product.getId(), 1));
+        }
+        OrderRequest request = new OrderRequest();
+        request.setItems(lines);
+        request.setShippingAddress("1 Test Street");
+        for (int i = 0; i < 5; i++) {
+            orderIds.add(orderService.createOrder(request, "user").id());
+        }
+    }
+
+    @AfterAll
+    void removeOrders() {
+        orderRepository.deleteAllById(orderIds);
+        productIds.forEach(productService::deleteProduct);
+    }
+
+    @Test
+    void orderHistoryPageHasAFixedStatementCount() throws Exception {
+        try (StatementCapture capture = sqlStatementCounter.begin()) {
+            mockMvc.perform(get("/orders/my-orders").param("size", "5").with(user("user").roles("USER")))
+                    .andExpect(status().isOk());
+            // The user, a page of ids, its count and the orders with everything they render
+            capture.assertAtMost(4);
+            capture.assertNoRepeatedSelects();
+        }
+    }
+
+    @Test
+    void orderHistorySliceHasAFixedStatementCount() throws Exception {
+        try (StatementCapture capture = sqlStatementCounter.begin()) {
+            mockMvc.perform(get("/orders/my-orders").param("cursor", "").param("size", "5")
+                            .with(user("user").roles("USER")))
+                    .andExpect(status().isOk());
+            // The user, a slice of orders and their items, products and categories
+            capture.assertAtMost(3);
+            capture.assertNoRepeatedSelects();
+        }
+    }
+}
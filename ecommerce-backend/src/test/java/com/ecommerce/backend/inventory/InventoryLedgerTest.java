@@ -0,0 +1,132 @@
+package com.ecommerce.backend.inventory;
+
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "inventory.ledger.enabled=true",
+        "inventory.ledger.journal-dir=target/inventory-ledger-test",
+        "inventory.ledger.journal-fsync=false"
+})
+class InventoryLedgerTest {
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void directWriteWaitsForOpenReservationsAndKeepsThem() throws Exception {
+        Long productId = newProduct(5);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        try {
+            Future<?> checkout = pool.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> {
+                        assertThat(inventoryLedger.reserve(Map.of(productId, 3))).isEmpty();
+                        reserved.countDown();
+                        try {
+                            commit.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertThat(reserved.await(30, TimeUnit.SECONDS)).isTrue();
+
+            Future<Integer> write = pool.submit(() -> inventoryLedger.writeThrough(productId,
+                    () -> jdbcTemplate.update("UPDATE products SET price = 7 WHERE id = ?", productId)));
+            Thread.sleep(300);
+            assertThat(write.isDone()).isFalse();
+
+            commit.countDown();
+            checkout.get(30, TimeUnit.SECONDS);
+            assertThat(write.get(30, TimeUnit.SECONDS)).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // The counter is reloaded after the write and must still count the checkout
+        assertThat(inventoryLedger.reserve(Map.of(productId, 2))).isEmpty();
+        assertThat(inventoryLedger.reserve(Map.of(productId, 1))).containsExactly(productId);
+        inventoryLedger.flush();
+        assertThat(stock(productId)).isZero();
+    }
+
+    @Test
+    void reservationDuringAnOuterTransactionWaitsForItsCommit() throws Exception {
+        Long productId = newProduct(5);
+        assertThat(inventoryLedger.reserve(Map.of(productId, 1))).isEmpty();
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?>[] checkout = new Future<?>[1];
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                inventoryLedger.writeThrough(productId,
+                        () -> jdbcTemplate.update("UPDATE products SET stock_quantity = 10 WHERE id = ?", productId));
+                // Reloading the counter now would read the row from before this restock
+                checkout[0] = pool.submit(() -> inventoryLedger.reserve(Map.of(productId, 8)));
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertThat(checkout[0].isDone()).isFalse();
+            });
+            assertThat(checkout[0].get(30, TimeUnit.SECONDS)).isEqualTo(List.of());
+        } finally {
+            pool.shutdownNow();
+        }
+        inventoryLedger.flush();
+        assertThat(stock(productId)).isEqualTo(2);
+    }
+
+    @Test
+    void deltaThatWouldTakeARowBelowZeroIsClampedAndLaterFlushesContinue() {
+        Long productId = newProduct(5);
+        assertThat(inventoryLedger.reserve(Map.of(productId, 4))).isEmpty();
+        // Lowered behind the ledger's back, so the journaled reservation no longer fits
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 1 WHERE id = ?", productId);
+
+        inventoryLedger.flush();
+        assertThat(stock(productId)).isZero();
+
+        Long otherId = newProduct(3);
+        assertThat(inventoryLedger.reserve(Map.of(otherId, 2))).isEmpty();
+        inventoryLedger.flush();
+        assertThat(stock(otherId)).isEqualTo(1);
+    }
+
+    private Long newProduct(int stock) {
+        return productRepository.save(
+                new Product("Ledger probe", null, new BigDecimal("4.00"), stock, null, null)).getId();
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.backend.pagination;
+
+import com.ecommerce.backend.dto.CursorPage;
+import com.ecommerce.backend.dto.ProductResponse;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class KeysetCursorTest {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void nullKeysRoundTripDistinctFromTheStringNull() {
+        Sort sort = Sort.by("description", "id");
+        Map<String, Object> nullKey = new LinkedHashMap<>();
+        nullKey.put("description", null);
+        nullKey.put("id", 7L);
+        Map<String, Object> stringKey = new HashMap<>(Map.of("description", "null", "id", 7L));
+
+        KeysetScrollPosition decodedNull =
+                KeysetCursor.decode(KeysetCursor.encode(ScrollPosition.forward(nullKey)), sort, Product.class);
+        KeysetScrollPosition decodedString =
+                KeysetCursor.decode(KeysetCursor.encode(ScrollPosition.forward(stringKey)), sort, Product.class);
+
+        assertThat(decodedNull.getKeys()).containsEntry("description", null).containsEntry("id", 7L);
+        assertThat(decodedString.getKeys()).containsEntry("description", "null");
+    }
+
+    @Test
+    void sortOnAnAssociationIsRejectedBeforeTheFirstSlice() {
+        productRepository.save(new Product("Association sort probe", null, new BigDecimal("2.00"), 1, null, null));
+
+        assertThatThrownBy(() -> productService.scrollAllProducts("", 1, Sort.by("category")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("", Sort.by("orderItems"), Product.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(KeysetCursor.decode("", Sort.by("createdAt", "id"), Product.class).isInitial()).isTrue();
+    }
+
+    @Test
+    void scrollingANullableSortVisitsEveryRowOnceWithNullsLast() {
+        for (int i = 0; i < 4; i++) {
+            productRepository.save(new Product("No price " + i, null, null, 1, null, null));
+            productRepository.save(new Product("Same price " + i, null, new BigDecimal("5.00"), 1, null, null));
+        }
+        long total = productRepository.count();
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            List<ProductResponse> seen = new ArrayList<>();
+            String cursor = "";
+            do {
+                CursorPage<ProductResponse> page =
+                        productService.scrollAllProducts(cursor, 3, Sort.by(direction, "price"));
+                seen.addAll(page.content());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            assertThat(seen).hasSize((int) total);
+            assertThat(seen.stream().map(ProductResponse::id).distinct().count()).isEqualTo(total);
+            int firstNull = seen.size();
+            for (int i = 0; i < seen.size(); i++) {
+                if (seen.get(i).price() == null) {
+                    firstNull = Math.min(firstNull, i);
+                } else {
+                    assertThat(i).as("priced row after a null price").isLessThan(firstNull);
+                }
+            }
+            for (int i = 1; i < firstNull; i++) {
+                int comparison = seen.get(i - 1).price().compareTo(seen.get(i).price());
+                assertThat(direction.isAscending() ? comparison : -comparison).isLessThanOrEqualTo(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.entity.Category;
+import com.ecommerce.backend.entity.Order;
+import com.ecommerce.backend.entity.User;
+import com.ecommerce.backend.metrics.SqlStatementCounter;
+import com.ecommerce.backend.metrics.StatementCapture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the hot catalog and order queries use the indexes created in
+ * V2__add_query_indexes.sql rather than scanning the table. The statements are the ones
+ * Hibernate actually generates for the repository methods, captured through
+ * {@link SqlStatementCounter}, so entity graph joins, sorts and paging clauses are covered.
+ */
+@SpringBootTest
+class QueryIndexTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void productQueriesUseTheirIndexes() {
+        Category category = categoryRepository.findAll().get(0);
+        BigDecimal min = new BigDecimal("10");
+        BigDecimal max = new BigDecimal("100");
+
+        assertUsesIndex(() -> productRepository.findByCategoryAndPriceBetween(category, min, max, PageRequest.of(0, 1)),
+                "IDX_PRODUCTS_CATEGORY_PRICE");
+        assertUsesIndex(() -> productRepository.findByPriceBetween(min, max, PageRequest.of(0, 1)),
+                "IDX_PRODUCTS_PRICE");
+        assertUsesIndex(() -> productRepository.findTop8ByOrderByCreatedAtDesc(),
+                "IDX_PRODUCTS_CREATED_AT");
+        assertUsesIndex(() -> productRepository.findAvailableProducts(PageRequest.of(0, 1, Sort.by("id"))),
+                "IDX_PRODUCTS_STOCK_QUANTITY");
+    }
+
+    @Test
+    void orderQueriesUseTheirIndexes() {
+        User user = userRepository.findByUsername("user").orElseThrow();
+
+        assertUsesIndex(() -> orderRepository.findIdsByUser(user,
+                        PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "createdAt"))),
+                "IDX_ORDERS_USER_CREATED_AT");
+        assertUsesIndex(() -> orderRepository.findByUserAndStatus(user, Order.OrderStatus.PENDING),
+                "IDX_ORDERS_USER_STATUS");
+        // H2 may pick the index it creates for the foreign key, which has the same column
+        assertUsesIndex(() -> orderRepository.findWithItemsByIdIn(List.of(1L, 2L)),
+                "IDX_ORDER_ITEMS_ORDER", "FK_ORDER_ITEMS_ORDER_INDEX");
+    }
+
+    // Every SELECT the call issues must avoid table scans and use one of the indexes
+    private void assertUsesIndex(Runnable call, String... indexes) {
+        List<String> selects;
+        try (StatementCapture capture = sqlStatementCounter.begin()) {
+            call.run();
+            selects = capture.statements().stream()
+                    .filter(StatementCapture.Statement::isSelect)
+                    .map(StatementCapture.Statement::getSql)
+                    .toList();
+        }
+        assertThat(selects).as("generated SELECTs").isNotEmpty();
+        for (String sql : selects) {
+            String plan = explain(sql).toUpperCase(Locale.ROOT);
+            // H2 marks a full scan as "tableScan" in the plan comment
+            assertThat(plan).as(sql).doesNotContain("TABLESCAN").containsAnyOf(indexes);
+        }
+    }
+
+    // The plan does not depend on the bound values, so every parameter is left unset
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+}
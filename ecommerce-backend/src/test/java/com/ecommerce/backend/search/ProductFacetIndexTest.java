@@ -0,0 +1,111 @@
+package com.ecommerce.backend.search;
+
+import com.ecommerce.backend.entity.Category;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductFacetIndexTest {
+    @Test
+    void filtersAndCountsEachFacetWithoutItsOwnSelection() {
+        ProductFacetIndex index = new ProductFacetIndex();
+        index.index(product(1, 1L, "10.00", 5));
+        index.index(product(2, 1L, "30.00", 0));
+        index.index(product(3, 1L, "60.00", 2));
+        index.index(product(4, 2L, "12.00", 1));
+        index.index(product(5, 2L, "70.00", 3));
+        index.index(product(6, null, null, 1));
+
+        ProductFacetIndex.Result byCategory = index.filter(null, Set.of(1L), null, null, false, 0, 10);
+        assertThat(byCategory.ids()).containsExactly(1L, 2L, 3L);
+        assertThat(byCategory.total()).isEqualTo(3);
+        // Category counts ignore the category selection; price counts follow it
+        assertThat(byCategory.categoryCounts()).isEqualTo(Map.of(1L, 3, 2L, 2));
+        assertThat(byCategory.priceBucketCounts()).startsWith(1, 1, 1, 0);
+
+        ProductFacetIndex.Result byPrice = index.filter(null, Set.of(), new BigDecimal("50"), new BigDecimal("100"),
+                false, 0, 10);
+        assertThat(byPrice.ids()).containsExactly(3L, 5L);
+        // Price counts ignore the price selection; category counts follow it
+        assertThat(byPrice.categoryCounts()).isEqualTo(Map.of(1L, 1, 2L, 1));
+        assertThat(byPrice.priceBucketCounts()).startsWith(2, 1, 2, 0);
+
+        ProductFacetIndex.Result inStock = index.filter(null, Set.of(1L), null, new BigDecimal("50"), true, 0, 10);
+        assertThat(inStock.ids()).containsExactly(1L);
+        assertThat(inStock.categoryCounts()).isEqualTo(Map.of(1L, 1, 2L, 1));
+        assertThat(inStock.priceBucketCounts()).startsWith(1, 0, 1, 0);
+
+        assertThat(index.filter(List.of(5L, 3L, 4L), Set.of(), new BigDecimal("50"), null, false, 0, 10).ids())
+                .containsExactly(5L, 3L);
+        assertThat(index.filter(null, Set.of(), null, null, false, 2, 2).ids()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void rebuildKeepsServingTheOldIndexAndReplaysChangesMadeMeanwhile() throws Exception {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductFacetIndex index = new ProductFacetIndex();
+        ReflectionTestUtils.setField(index, "productRepository", repository);
+        index.index(product(9, 1L, "5.00", 1));
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findFacetRows(anyLong(), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return List.of(
+                    new Object[]{1L, 1L, new BigDecimal("10.00"), 1},
+                    new Object[]{2L, 1L, new BigDecimal("20.00"), 1},
+                    new Object[]{3L, 2L, new BigDecimal("30.00"), 1});
+        });
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = pool.submit(index::rebuild);
+            assertThat(reading.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // The catalog read is in progress; filters answer from the old index meanwhile
+            assertThat(index.filter(null, Set.of(), null, null, false, 0, 10).ids()).containsExactly(9L);
+            index.index(product(4, 2L, "40.00", 1));
+            index.remove(1L);
+
+            release.countDown();
+            rebuild.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ProductFacetIndex.Result result = index.filter(null, Set.of(), null, null, false, 0, 10);
+        assertThat(result.ids()).containsExactly(2L, 3L, 4L);
+        assertThat(result.categoryCounts()).isEqualTo(Map.of(1L, 1, 2L, 2));
+    }
+
+    private static Product product(long id, Long categoryId, String price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        if (categoryId != null) {
+            Category category = new Category();
+            category.setId(categoryId);
+            product.setCategory(category);
+        }
+        product.setPrice(price != null ? new BigDecimal(price) : null);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.backend.search;
+
+import com.ecommerce.backend.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+    @Test
+    void limitedSearchReturnsTheTopOfTheFullRankingAndTheTotal() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 50; id++) {
+            // Every third product has the term in its name, which ranks above the description
+            String name = id % 3 == 0 ? "Blue lamp " + id : "Lamp " + id;
+            index.index(product(id, name, id % 2 == 0 ? "blue shade" : "red shade"));
+        }
+
+        List<Long> all = index.search("blue");
+        ProductSearchIndex.Hits top = index.search("blue", 7);
+
+        assertThat(top.total()).isEqualTo(all.size());
+        assertThat(top.ids()).containsExactlyElementsOf(all.subList(0, 7));
+        assertThat(index.search("blue", all.size() + 10).ids()).containsExactlyElementsOf(all);
+        assertThat(index.search("missing", 5).total()).isZero();
+    }
+
+    private static Product product(long id, String name, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        return product;
+    }
+}
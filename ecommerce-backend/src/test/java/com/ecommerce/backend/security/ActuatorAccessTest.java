@@ -0,0 +1,50 @@
+package com.ecommerce.backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Actuator endpoints are open on the loopback management port only; a request for them
+ * on the API port, which reaches them when MANAGEMENT_PORT is set to it, needs an admin.
+ */
+@SpringBootTest(properties = {"server.port=12000", "management.server.port=12001"})
+@AutoConfigureMockMvc
+class ActuatorAccessTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void apiPortRequiresAnAdmin() throws Exception {
+        assertThat(prometheus(onPort(12000))).isEqualTo(403);
+        assertThat(prometheus(onPort(12000), user("user").roles("USER"))).isEqualTo(403);
+        assertThat(prometheus(onPort(12000), user("admin").roles("ADMIN"))).isNotIn(401, 403);
+    }
+
+    @Test
+    void managementPortIsOpen() throws Exception {
+        assertThat(prometheus(onPort(12001))).isNotIn(401, 403);
+    }
+
+    private int prometheus(RequestPostProcessor... postProcessors) throws Exception {
+        var request = get("/actuator/prometheus");
+        for (RequestPostProcessor postProcessor : postProcessors) {
+            request.with(postProcessor);
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getStatus();
+    }
+
+    private static RequestPostProcessor onPort(int port) {
+        return request -> {
+            request.setLocalPort(port);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class JwtUtilsTest {
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void verifiedTokenIsCachedAsAProjectionOfItsClaims() {
+        UserPrincipal principal = new UserPrincipal(1L, "jwt-probe", null, null, null, null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String jwt = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Authorities come from the principal loaded per request, so the token does not carry them
+        String payload = new String(Base64.getUrlDecoder().decode(jwt.split("\\.")[1]), StandardCharsets.UTF_8);
+        assertThat(payload).doesNotContain("ROLE_");
+
+        JwtUtils.VerifiedToken first = jwtUtils.parseValidatedToken(jwt);
+        assertThat(first.subject()).isEqualTo("jwt-probe");
+        assertThat(first.id()).isNotNull();
+        assertThat(first.expiresAt()).isNotNull();
+
+        assertThat(jwtUtils.parseValidatedToken(jwt)).isSameAs(first);
+        assertThat(jwtUtils.parseValidatedToken(jwt + "x")).isNull();
+    }
+}
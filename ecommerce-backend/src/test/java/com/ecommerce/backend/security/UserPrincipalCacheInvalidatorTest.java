@@ -0,0 +1,43 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.entity.User;
+import com.ecommerce.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class UserPrincipalCacheInvalidatorTest {
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void principalCachedBeforeCommitIsDroppedAfterCommit() {
+        UserPrincipal stale = mock(UserPrincipal.class);
+        UserPrincipal fresh = mock(UserPrincipal.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername("user").orElseThrow();
+            user.setPhone("555-0100");
+            entityManager.flush();
+            // A concurrent request reloading the row before commit would cache the old state
+            userPrincipalCache.get("user", "token", () -> stale);
+        });
+
+        assertThat(userPrincipalCache.get("user", "token", () -> fresh)).isSameAs(fresh);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class CartServiceTest {
+    private static final String USERNAME = "admin";
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @Test
+    void concurrentCheckoutsOfOneCartPlaceOneOrder() throws Exception {
+        Long productId = productRepository.save(
+                new Product("Checkout probe", null, new BigDecimal("4.00"), 10, null, null)).getId();
+        cartService.clear(USERNAME);
+        cartService.addItem(USERNAME, productId, 2);
+
+        CountDownLatch ordering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            ordering.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(orderService).createOrder(any(), eq(USERNAME));
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<OrderResponse> first = pool.submit(() -> cartService.checkout(USERNAME, "1 Test Street"));
+            assertThat(ordering.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // A double submit while the first checkout is still placing the order
+            assertThatThrownBy(() -> cartService.checkout(USERNAME, "1 Test Street"))
+                    .isInstanceOf(IllegalStateException.class);
+            release.countDown();
+            assertThat(first.get(30, TimeUnit.SECONDS).orderItems()).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(orderService, times(1)).createOrder(any(), eq(USERNAME));
+        assertThat(cartService.getCart(USERNAME).items()).isEmpty();
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(8);
+        assertThatThrownBy(() -> cartService.checkout(USERNAME, "1 Test Street"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports several times more CSV than the test JVM's heap (-Xmx96m, see the pom). The
+ * orders live in a file database with a small page cache so that only the export itself
+ * competes for the heap; materializing the rows would run out of memory.
+ */
+@SpringBootTest
+class OrderExportHeapTest {
+    private static final int ORDERS = 60_000;
+    private static final int ITEMS_PER_ORDER = 10;
+    private static final int ORDERS_WITHOUT_ITEMS = 100;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("order-export-heap");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("db") + ";CACHE_SIZE=8192");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Test
+    void exportStreamsMoreThanTheHeap() throws Exception {
+        String address = "A".repeat(200);
+        jdbcTemplate.update("UPDATE products SET name = CONCAT(id, ' ', REPEAT('N', 190))");
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, status, shipping_address, created_at) " +
+                "SELECT 1000000 + x, (SELECT MIN(id) FROM users), 99.99, 'PENDING', ?, CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", address, ORDERS + ORDERS_WITHOUT_ITEMS);
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, quantity, price) " +
+                "SELECT 1000000 + x, 1000000 + 1 + (x - 1) / ?, " +
+                "(SELECT MIN(id) FROM products) + MOD(x, 10), 1, 9.99 FROM SYSTEM_RANGE(1, ?)",
+                ITEMS_PER_ORDER, ORDERS * ITEMS_PER_ORDER);
+        long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+
+        CountingWriter writer = new CountingWriter();
+        long exported = orderExportService.exportOrders(OrderExportService.Format.CSV, writer);
+
+        assertThat(exported).isEqualTo(orders);
+        assertThat(writer.chars * 2).isGreaterThan(3 * Runtime.getRuntime().maxMemory());
+    }
+
+    // Counts and drops the output, the way a slow client's socket would take it
+    private static final class CountingWriter extends Writer {
+        private long chars;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            chars += length;
+        }
+
+        @Override
+        public void write(String value) {
+            chars += value.length();
+        }
+
+        @Override
+        public void write(int c) {
+            chars++;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
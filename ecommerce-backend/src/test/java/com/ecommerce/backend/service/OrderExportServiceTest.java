@@ -0,0 +1,41 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.entity.Order;
+import com.ecommerce.backend.entity.User;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderExportServiceTest {
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void ordersWithoutItemsAreExported() throws Exception {
+        User user = userRepository.findByUsername("user").orElseThrow();
+        Long emptyOrderId = orderRepository.save(new Order(user, new BigDecimal("1.00"), "No items lane")).getId();
+
+        StringWriter ndjson = new StringWriter();
+        long exported = orderExportService.exportOrders(OrderExportService.Format.NDJSON, ndjson);
+        assertThat(exported).isEqualTo(orderRepository.count());
+        assertThat(ndjson.toString()).contains("{\"id\":" + emptyOrderId + ",").contains("\"items\":[]");
+
+        StringWriter csv = new StringWriter();
+        orderExportService.exportOrders(OrderExportService.Format.CSV, csv);
+        assertThat(csv.toString()).containsPattern("(?m)^" + emptyOrderId + ",.*,No items lane,.*,,,,$");
+    }
+}
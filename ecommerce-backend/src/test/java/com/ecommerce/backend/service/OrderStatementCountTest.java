@@ -0,0 +1,66 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.metrics.SqlStatementCounter;
+import com.ecommerce.backend.metrics.StatementCapture;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderStatementCountTest {
+    private static final int LINES = 6;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Test
+    void multiLineOrderIsPlacedWithoutPerLineQueriesOrInserts() {
+        List<OrderRequest.OrderItemRequest> lines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = productRepository.save(
+                    new Product("Statement probe " + i, null, new BigDecimal("3.50"), 10, null, null));
+            lines.add(new OrderRequest.OrderItemRequest(product.getId(), 1 + i));
+        }
+        OrderRequest request = new OrderRequest();
+        request.setItems(lines);
+        request.setShippingAddress("1 Test Street");
+
+        try (StatementCapture capture = sqlStatementCounter.begin()) {
+            orderService.createOrder(request, "user");
+
+            capture.assertNoRepeatedSelects();
+            assertThat(insertsInto(capture, "order_items")).isEqualTo(1);
+            // The conditional stock UPDATE per line, plus the user, the products before and
+            // after the UPDATEs, two sequence calls when a pooled block runs out and the two
+            // batched inserts
+            capture.assertAtMost(LINES + 7);
+        }
+    }
+
+    // Statements prepared for inserts into the table; a JDBC batch is prepared once
+    private static int insertsInto(StatementCapture capture, String table) {
+        int prepared = 0;
+        for (StatementCapture.Statement statement : capture.statements()) {
+            if (statement.getSql().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").startsWith("insert into " + table + " ")) {
+                prepared += statement.getCount();
+            }
+        }
+        return prepared;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "orders.async.max-retained=" + OrderSubmissionServiceTest.MAX_RETAINED)
+class OrderSubmissionServiceTest {
+    static final int MAX_RETAINED = 10;
+
+    @Autowired
+    private OrderSubmissionService orderSubmissionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @Test
+    void concurrentRetriesWithOneKeyArePlacedOnce() throws Exception {
+        Long productId = newProduct(10);
+        String key = UUID.randomUUID().toString();
+        int retries = 8;
+
+        ExecutorService pool = Executors.newFixedThreadPool(retries);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderSubmission>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < retries; i++) {
+                int quantity = 1 + i;
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    // Even a retry with a different body must not be placed again
+                    return orderSubmissionService.submit("user", key, order(productId, quantity));
+                }));
+            }
+            start.countDown();
+            OrderSubmission first = attempts.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<OrderSubmission> attempt : attempts) {
+                assertThat(attempt.get(30, TimeUnit.SECONDS)).isSameAs(first);
+            }
+
+            awaitDone(first);
+            assertThat(first.getStatus()).isEqualTo(OrderSubmission.Status.COMPLETED);
+            int ordered = first.getRequest().getItems().get(0).getQuantity();
+            assertThat(stock(productId)).isEqualTo(10 - ordered);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchFailureOtherThanStockIsNotReplayedOrderByOrder() throws Exception {
+        Long productId = newProduct(10);
+        // Could as well have been raised by the commit, after the orders were written
+        doThrow(new IllegalStateException("Commit outcome unknown")).when(orderService).createOrders(any(), any());
+
+        OrderSubmission submission =
+                orderSubmissionService.submit("user", UUID.randomUUID().toString(), order(productId, 2));
+        awaitDone(submission);
+
+        assertThat(submission.getStatus()).isEqualTo(OrderSubmission.Status.FAILED);
+        verify(orderService, never()).createOrder(any(), any());
+        assertThat(stock(productId)).isEqualTo(10);
+    }
+
+    @Test
+    void finishedSubmissionsAreCappedAtMaxRetained() throws Exception {
+        Long productId = newProduct(100);
+        List<OrderSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 3 * MAX_RETAINED; i++) {
+            submissions.add(orderSubmissionService.submit("user", UUID.randomUUID().toString(), order(productId, 1)));
+        }
+        for (OrderSubmission submission : submissions) {
+            awaitDone(submission);
+        }
+
+        // A worker retires its batch just after publishing the outcomes
+        long deadline = System.currentTimeMillis() + 5_000;
+        long retained = retained(submissions);
+        while (retained > MAX_RETAINED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            retained = retained(submissions);
+        }
+        assertThat(retained).isLessThanOrEqualTo(MAX_RETAINED);
+    }
+
+    private long retained(List<OrderSubmission> submissions) {
+        return submissions.stream()
+                .filter(submission -> orderSubmissionService.find(submission.getId(), "user").isPresent())
+                .count();
+    }
+
+    private Long newProduct(int stock) {
+        return productRepository.save(
+                new Product("Submission probe", null, new BigDecimal("4.00"), stock, null, null)).getId();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+
+    private static OrderRequest order(Long productId, int quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(new OrderRequest.OrderItemRequest(productId, quantity)));
+        request.setShippingAddress("1 Test Street");
+        return request;
+    }
+
+    private static void awaitDone(OrderSubmission submission) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (submission.getStatus() == OrderSubmission.Status.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.OrderRequest;
+import com.ecommerce.backend.dto.OrderResponse;
+import com.ecommerce.backend.entity.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StockReservationServiceTest {
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentOrdersNeverOversell() throws Exception {
+        int stock = 5;
+        int buyers = 20;
+        Long productId = productRepository.save(
+                new Product("Oversell probe", null, new BigDecimal("9.99"), stock, null, null)).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < buyers; i++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(order(line(productId, 1)), "user");
+                        return true;
+                    } catch (StockReservationException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int placed = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(30, TimeUnit.SECONDS)) {
+                    placed++;
+                }
+            }
+
+            assertThat(placed).isEqualTo(stock);
+            assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicateLinesCannotOverflowIntoARestock() {
+        Long productId = productRepository.save(
+                new Product("Overflow probe", null, new BigDecimal("9.99"), 3, null, null)).getId();
+
+        assertThatThrownBy(() -> orderService.createOrder(
+                order(line(productId, Integer.MAX_VALUE), line(productId, Integer.MAX_VALUE)), "user"))
+                .isInstanceOf(StockReservationException.class);
+        assertThatThrownBy(() -> orderService.createOrder(
+                order(line(productId, OrderRequest.OrderItemRequest.MAX_QUANTITY),
+                        line(productId, OrderRequest.OrderItemRequest.MAX_QUANTITY)), "user"))
+                .isInstanceOf(StockReservationException.class);
+        assertThatThrownBy(() -> orderService.createOrder(order(line(productId, -1)), "user"))
+                .isInstanceOf(StockReservationException.class);
+
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void placedOrdersReportTheStockLeftAfterThem() {
+        Long productId = productRepository.save(
+                new Product("Stock report probe", null, new BigDecimal("9.99"), 5, null, null)).getId();
+
+        OrderResponse single = orderService.createOrder(order(line(productId, 2)), "user");
+        assertThat(single.orderItems().get(0).product().stockQuantity()).isEqualTo(3);
+
+        List<OrderService.PlacementResult> batch = orderService.createOrders(
+                List.of(order(line(productId, 1)), order(line(productId, 1))), List.of("user", "user"));
+        for (OrderService.PlacementResult result : batch) {
+            assertThat(result.order().orderItems().get(0).product().stockQuantity()).isEqualTo(1);
+        }
+    }
+
+    private static OrderRequest.OrderItemRequest line(Long productId, int quantity) {
+        return new OrderRequest.OrderItemRequest(productId, quantity);
+    }
+
+    private static OrderRequest order(OrderRequest.OrderItemRequest... lines) {
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(lines));
+        request.setShippingAddress("1 Test Street");
+        return request;
+    }
+}